@@ -0,0 +1,118 @@
+package benchmarks;
+
+import algorithms.RunContext;
+import algorithms.Scheduler;
+import algorithms.SchedulerRegistry;
+import models.Timeline;
+import models.Workload;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import workloads.WorkloadGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+// Runs every registered scheduler on generated workloads of 1e3 to 1e7 processes with short or long bursts
+// and sparse or dense arrivals. Besides the time per run, the "processes" counter reports how many processes
+// were scheduled per second, and the GC profiler (turned on by BenchmarkMain) adds the allocation rate.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SchedulerBenchmark {
+    private static final long SEED = 42;
+    private static final int CONTEXT_SWITCHING_TIME = 1;
+
+    @Param({"priority", "sjf", "srtf", "fcai", "priority-preemptive", "mlfq", "cfs", "rr", "srtf-legacy",
+            "fcai-legacy"})
+    public String algorithm;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int n;
+
+    @Param({"short", "long"})
+    public String bursts;
+
+    @Param({"sparse", "dense"})
+    public String arrivals;
+
+    private Scheduler scheduler;
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = SchedulerRegistry.defaults().get(algorithm);
+        workload = workload(n, bursts, arrivals);
+    }
+
+    // Each benchmark thread schedules on its own context, so after the first run nothing is allocated
+    // except what the scheduler itself allocates
+    @State(Scope.Thread)
+    public static class Context {
+        RunContext context = new RunContext();
+    }
+
+    // Processes scheduled in the iteration; with OPERATIONS, JMH reports it as processes per second
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long processes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            processes = 0;
+        }
+    }
+
+    @Benchmark
+    public Timeline schedule(Context context, Counters counters) {
+        Timeline timeline = scheduler.schedule(workload, CONTEXT_SWITCHING_TIME, context.context);
+        counters.processes += workload.size();
+        return timeline;
+    }
+
+    // Short bursts are exponential with mean 5; long bursts are heavy-tailed (Pareto, mean about 60).
+    // Sparse arrivals come on average twice the mean burst apart, so the CPU is often idle; dense arrivals
+    // come at half the mean burst, so the ready queue keeps growing.
+    static Workload workload(int n, String bursts, String arrivals) {
+        WorkloadGenerator generator = new WorkloadGenerator(SEED)
+                .priorityMix(1, 2, 4, 2, 1)
+                .quantumRange(2, 8);
+        double meanBurst;
+        switch (bursts) {
+            case "short":
+                generator.exponentialBursts(5);
+                meanBurst = 5;
+                break;
+            case "long":
+                generator.paretoBursts(1.5, 20, 5000);
+                meanBurst = 60;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown burst profile: " + bursts);
+        }
+        switch (arrivals) {
+            case "sparse":
+                generator.poissonArrivals(2 * meanBurst);
+                break;
+            case "dense":
+                generator.poissonArrivals(0.5 * meanBurst);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown arrival profile: " + arrivals);
+        }
+        return generator.generate(n);
+    }
+}
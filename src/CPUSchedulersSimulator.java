@@ -1,17 +1,47 @@
-import algorithms.FCAIScheduler;
-import algorithms.PriorityScheduler;
-import algorithms.ShortestJobFirstScheduler;
-import algorithms.ShortestRemainingTimeFirstScheduler;
+import algorithms.AsyncLogListener;
+import algorithms.MultiCoreKernel;
+import algorithms.RunContext;
+import algorithms.Scheduler;
+import algorithms.SchedulerRegistry;
+import algorithms.SchedulingListener;
+import experiments.BatchRunner;
+import experiments.Experiment;
+import experiments.ExperimentResult;
+import experiments.PartitionedResult;
+import experiments.PartitionedRunner;
+import models.Histogram;
 import models.Process;
 import models.ProcessExecution;
-
+import models.RunStatistics;
+import models.Timeline;
+import models.Workload;
+import workloads.WorkloadLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Scanner;
 
 public class  CPUSchedulersSimulator {
     public static void main(String[] args) {
+        // Batch mode: CPUSchedulersSimulator --batch <results.csv> <workload file>... [options]
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+            return;
+        }
+
+        // Non-interactive mode: CPUSchedulersSimulator <workload file> <scheduler id> [context switching time] [--log]
+        if (args.length > 0) {
+            runFromFile(args);
+            return;
+        }
+
         // Initialize scanner for user input
         Scanner scanner = new Scanner(System.in);
 
@@ -59,105 +89,372 @@ public class  CPUSchedulersSimulator {
         }
 
         // Display available CPU scheduling algorithms
+        List<Scheduler> schedulers = SchedulerRegistry.defaults().getSchedulers();
         System.out.println("Select the Scheduling Algorithm:");
-        System.out.println("1. Non-preemptive Priority Scheduling");
-        System.out.println("2. Non-preemptive Shortest Job First (SJF)");
-        System.out.println("3. Shortest Remaining Time First (SRTF)");
-        System.out.println("4. FCAI Scheduling");
+        for (int i = 0; i < schedulers.size(); i++) {
+            System.out.println((i + 1) + ". " + schedulers.get(i).getName());
+        }
         System.out.print("Please enter your choice: ");
         int choice = scanner.nextInt();
 
         // Validate the user's choice to ensure it is within the valid range
-        if (choice < 1 || choice > 4) {
+        if (choice < 1 || choice > schedulers.size()) {
             System.out.println("Invalid choice. Exiting program.");
             return; // Exit the program if choice is invalid
         }
+        Scheduler scheduler = schedulers.get(choice - 1);
 
         // Ask the user for context switching time
         System.out.print("Enter context switching time: ");
         int contextSwitchingTime = scanner.nextInt();
 
-        // Initialize variables for scheduling results
-        List<ProcessExecution> schedule = null; // Stores the execution order of processes
-        String scheduleName = null;            // Name of the chosen scheduling algorithm
-        double averageWaitingTime = 0;         // Average waiting time for all processes
-        double averageTurnaroundTime = 0;      // Average turnaround time for all processes
-
-        // Execute the chosen scheduling algorithm based on the user's choice
-        switch (choice) {
-            case 1:
-                // Non-preemptive Priority Scheduling
-                PriorityScheduler priorityScheduler = new PriorityScheduler();
-                scheduleName = "Process Execution by Priority Scheduling";
-
-                // Generate the schedule and calculate performance metrics
-                schedule = priorityScheduler.schedule(processes, contextSwitchingTime);
-                averageWaitingTime = priorityScheduler.calculateAverageWaitingTime(processes);
-                averageTurnaroundTime = priorityScheduler.calculateAverageTurnaroundTime(processes);
-
-                // Display results for Priority Scheduling
-                priorityScheduler.printResults(processes, schedule);
-                break;
-
-            case 2:
-                // Non-preemptive Shortest Job First (SJF) Scheduling
-                ShortestJobFirstScheduler sjfScheduler = new ShortestJobFirstScheduler(processes, contextSwitchingTime);
-                scheduleName = "Process Execution by Shortest Job First Scheduling";
-
-                // Generate the schedule and calculate performance metrics
-                schedule = sjfScheduler.schedule();
-                averageWaitingTime = sjfScheduler.calculateAverageWaitingTime();
-                averageTurnaroundTime = sjfScheduler.calculateAverageTurnaroundTime();
-                break;
-
-            case 3:
-                // Preemptive Shortest Remaining Time First (SRTF) Scheduling
-                List<Process> executionOrder = new ArrayList<>();
-                ShortestRemainingTimeFirstScheduler srtfScheduler = new ShortestRemainingTimeFirstScheduler();
-                scheduleName = "Process Execution by Shortest Remaining Time First Scheduling";
-
-                // Generate the schedule and calculate performance metrics
-                schedule = srtfScheduler.schedule(processes, contextSwitchingTime);
-                averageWaitingTime = srtfScheduler.calculateAverageWaitingTime(processes);
-                averageTurnaroundTime = srtfScheduler.calculateAverageTurnaroundTime(processes);
-
-                // Store the execution order for printing results
-                executionOrder = srtfScheduler.executionOrder2;
-
-                // Display results for SRTF
-                srtfScheduler.printResults(executionOrder, schedule);
-                break;
-
-            case 4:
-                // FCAI Scheduling
-                for (Process p : processes) {
-                    // Ask for Round Robin quantum for each process
-                    System.out.print("Enter Round Robin Quantum for " + p.getName() + " : ");
-                    int quantum = scanner.nextInt();
-                    p.setUpdatedQuantum(quantum);
+        // Ask for a quantum per process if the algorithm needs one
+        if (scheduler.usesQuantum()) {
+            for (Process p : processes) {
+                System.out.print("Enter Round Robin Quantum for " + p.getName() + " : ");
+                int quantum = scanner.nextInt();
+                p.setUpdatedQuantum(quantum);
+            }
+        }
+
+        // Run the chosen scheduling algorithm; the results come back in the run context's process table
+        Workload workload = Workload.of(processes);
+        RunContext context = new RunContext();
+        Timeline schedule = scheduler.schedule(workload, contextSwitchingTime, context);
+        List<Process> results = schedule.getTable().toProcesses();
+
+        // Display the results; the metrics were accumulated during the run
+        RunStatistics statistics = context.getStatistics();
+        printResults(results, schedule.asList());
+        printMetrics(statistics);
+        double averageWaitingTime = statistics.getAverageWaitingTime();
+        double averageTurnaroundTime = statistics.getAverageTurnaroundTime();
+
+        // Display the schedule using the Gantt chart
+        GanttChart.createAndShowGUI(
+                schedule,                                      // Timeline of process executions
+                "Process Execution by " + scheduler.getName(), // Name of the scheduling algorithm
+                averageWaitingTime,                            // Average waiting time
+                averageTurnaroundTime                          // Average turnaround time
+        );
+    }
+
+    // Loads a CSV or binary workload file, runs one scheduler on it and prints a summary
+    private static void runFromFile(String[] args) {
+        // --log prints every scheduling event as it happens; --cores runs on several CPUs, spread as --balance says;
+        // --partitions runs partitions of the workload (by pid) as independent CPUs on parallel threads;
+        // --gantt writes the schedule's Gantt chart to a .png or .svg file (no window is needed);
+        // --live shows the Gantt chart in a window, drawn as the simulation runs
+        boolean log = false;
+        boolean live = false;
+        Path gantt = null;
+        int cores = 1;
+        int partitions = 0;
+        MultiCoreKernel.LoadBalancing balancing = MultiCoreKernel.LoadBalancing.WORK_STEALING;
+        List<String> positional = new ArrayList<>();
+        boolean malformed = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--log":
+                        log = true;
+                        break;
+                    case "--cores":
+                        cores = Integer.parseInt(args[++i]);
+                        break;
+                    case "--balance":
+                        balancing = parseBalancing(args[++i]);
+                        break;
+                    case "--partitions":
+                        partitions = Integer.parseInt(args[++i]);
+                        break;
+                    case "--gantt":
+                        gantt = Paths.get(args[++i]);
+                        break;
+                    case "--live":
+                        live = true;
+                        break;
+                    default:
+                        positional.add(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            malformed = true; // Missing or malformed option value
+        }
+        args = positional.toArray(new String[0]);
+        int contextSwitchingTime = 0;
+        try {
+            contextSwitchingTime = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        } catch (NumberFormatException e) {
+            malformed = true;
+        }
+
+        SchedulerRegistry registry = SchedulerRegistry.defaults();
+        if (malformed || args.length < 2 || !registry.contains(args[1]) || cores < 1 || balancing == null
+                || partitions < 0 || (partitions > 0 && (cores > 1 || log)) || (gantt != null && cores > 1)
+                || (live && (cores > 1 || partitions > 0))) {
+            System.out.println("Usage: CPUSchedulersSimulator <workload file> <scheduler id> [context switching time] [--log]"
+                    + " [--gantt chart.png|chart.svg] [--live]");
+            System.out.println("       CPUSchedulersSimulator <workload file> <scheduler id> [context switching time] [--log]"
+                    + " --cores n [--balance global|stealing|pinned]");
+            System.out.println("       CPUSchedulersSimulator <workload file> <scheduler id> [context switching time]"
+                    + " --partitions n [--gantt chart.png|chart.svg]");
+            System.out.print("Scheduler ids:");
+            for (Scheduler scheduler : registry.getSchedulers()) {
+                System.out.print(" " + scheduler.getId());
+            }
+            System.out.println();
+            return;
+        }
+        Scheduler scheduler = registry.get(args[1]);
+
+        // Load the workload
+        long loadStart = System.nanoTime();
+        Workload workload;
+        try {
+            workload = WorkloadLoader.load(Paths.get(args[0]));
+        } catch (IOException e) {
+            System.out.println("Could not load " + args[0] + ": " + e.getMessage());
+            return;
+        }
+        long loadEnd = System.nanoTime();
+        if (partitions > 0) {
+            runPartitioned(workload, scheduler, contextSwitchingTime, partitions, loadEnd - loadStart, gantt);
+            return;
+        }
+
+        // Run the scheduler, with the log written on a background thread and the live chart drawn on the
+        // Swing thread
+        RunContext context = new RunContext();
+        AsyncLogListener logListener = log ? new AsyncLogListener() : null;
+        LiveGanttFeed liveFeed = live ? new LiveGanttFeed(workload) : null;
+        context.setListener(SchedulingListener.both(logListener, liveFeed));
+        if (liveFeed != null) {
+            GanttChart.createAndShowLive(liveFeed, "Process Execution by " + scheduler.getName());
+        }
+        MultiCoreKernel multiCore = null;
+        Timeline schedule = null;
+        try {
+            if (cores == 1) {
+                schedule = scheduler.schedule(workload, contextSwitchingTime, context);
+            } else {
+                try {
+                    multiCore = scheduler.scheduleMultiCore(workload, contextSwitchingTime, cores, balancing,
+                            context);
+                } catch (UnsupportedOperationException e) {
+                    System.out.println(e.getMessage()); // The original engines only run on one CPU
+                }
+            }
+        } finally {
+            // Also when the run failed, so the window stops waiting for it (and shows no results)
+            if (liveFeed != null) {
+                liveFeed.close(schedule, schedule != null ? context.getTable() : null,
+                        context.getStatistics().getAverageWaitingTime(),
+                        context.getStatistics().getAverageTurnaroundTime());
+            }
+        }
+        long runEnd = System.nanoTime();
+        if (logListener != null) {
+            try {
+                logListener.close();
+            } catch (IOException e) {
+                System.out.println("Could not write the log: " + e.getMessage());
+            }
+        }
+        if (schedule == null && multiCore == null) {
+            return;
+        }
+
+        System.out.println(scheduler.getName() + " on " + workload.size() + " processes");
+        System.out.println("Load Time: " + (loadEnd - loadStart) / 1_000_000 + " ms");
+        System.out.println("Schedule Time: " + (runEnd - loadEnd) / 1_000_000 + " ms");
+        if (multiCore != null) {
+            for (int core = 0; core < cores; core++) {
+                printCpuSummary("Core " + core, multiCore.getStatistics(core));
+            }
+            System.out.println("All " + cores + " cores (" + balancing.name().toLowerCase() + "):");
+        }
+        System.out.println("Executions: " + context.getStatistics().getExecutions());
+        System.out.println("End Time: " + context.getStatistics().getEndTime());
+        printMetrics(context.getStatistics());
+        System.out.println("Kernel: " + context.getCounters());
+        if (gantt != null) {
+            writeGantt(schedule, gantt);
+        }
+    }
+
+    // Writes the Gantt chart of a schedule to a file
+    private static void writeGantt(Timeline schedule, Path file) {
+        long start = System.nanoTime();
+        try {
+            GanttExporter.write(schedule, file);
+            System.out.println("Gantt chart written to " + file + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not write the Gantt chart: " + e.getMessage());
+        }
+    }
+
+    // Runs each partition of the workload on its own thread and prints the merged metrics
+    private static void runPartitioned(Workload workload, Scheduler scheduler, int contextSwitchingTime,
+                                       int partitions, long loadNanos, Path gantt) {
+        PartitionedResult result = new PartitionedRunner().run(workload, scheduler, contextSwitchingTime,
+                PartitionedRunner.PartitionKey.byPid(partitions), gantt != null);
+        System.out.println(scheduler.getName() + " on " + workload.size() + " processes in "
+                + result.getPartitionCount() + " partitions");
+        System.out.println("Load Time: " + loadNanos / 1_000_000 + " ms");
+        System.out.println("Schedule Time: " + result.getRunNanos() / 1_000_000 + " ms");
+        for (int partition = 0; partition < result.getPartitionCount(); partition++) {
+            printCpuSummary("Partition " + result.getPartitionKey(partition), result.getStatistics(partition));
+        }
+        RunStatistics statistics = result.getStatistics();
+        System.out.println("Executions: " + statistics.getExecutions());
+        System.out.println("End Time: " + statistics.getEndTime());
+        printMetrics(statistics);
+        if (gantt != null) {
+            writeGantt(result.getTimeline(), gantt);
+        }
+    }
+
+    // One line about one CPU of a multi-CPU run
+    private static void printCpuSummary(String label, RunStatistics statistics) {
+        System.out.println(label + ": " + statistics.getCompleted() + " completed, "
+                + "utilization " + String.format("%.1f", statistics.getCpuUtilization() * 100) + "%, "
+                + "average waiting time " + statistics.getAverageWaitingTime() + ", "
+                + statistics.getContextSwitches() + " context switches");
+    }
+
+    // Load balancing named on the command line, null if the name is unknown
+    private static MultiCoreKernel.LoadBalancing parseBalancing(String name) {
+        switch (name) {
+            case "global":
+                return MultiCoreKernel.LoadBalancing.GLOBAL;
+            case "stealing":
+                return MultiCoreKernel.LoadBalancing.WORK_STEALING;
+            case "pinned":
+                return MultiCoreKernel.LoadBalancing.PINNED;
+            default:
+                return null;
+        }
+    }
+
+    // Prints the metrics of a run: distributions of the per-process times and CPU-wide figures
+    private static void printMetrics(RunStatistics statistics) {
+        printDistribution("Waiting Time", statistics.getWaitingTimes());
+        printDistribution("Turnaround Time", statistics.getTurnaroundTimes());
+        printDistribution("Response Time", statistics.getResponseTimes());
+        System.out.println("Throughput: " + String.format("%.4f", statistics.getThroughput()) + " processes per time unit");
+        System.out.println("CPU Utilization: " + String.format("%.1f", statistics.getCpuUtilization() * 100) + "%");
+        System.out.println("Context Switches: " + statistics.getContextSwitches());
+    }
+
+    private static void printDistribution(String metric, Histogram histogram) {
+        System.out.println(metric + ": average " + histogram.getMean()
+                + ", p50 " + histogram.getPercentile(50)
+                + ", p95 " + histogram.getPercentile(95)
+                + ", p99 " + histogram.getPercentile(99)
+                + ", max " + histogram.getMax());
+    }
+
+    // Runs every combination of the given workloads, schedulers, context switching times and quanta in
+    // parallel and writes one results table
+    private static void runBatch(String[] args) {
+        SchedulerRegistry registry = SchedulerRegistry.defaults();
+        List<String> files = new ArrayList<>();
+        List<String> schedulerIds = new ArrayList<>();
+        int[] contextSwitchingTimes = {0};
+        int[] quanta = {0};
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--schedulers":
+                        schedulerIds.addAll(Arrays.asList(args[++i].split(",")));
+                        break;
+                    case "--cs":
+                        contextSwitchingTimes = parseList(args[++i]);
+                        break;
+                    case "--quanta":
+                        quanta = parseList(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        files.add(args[i]);
                 }
+            }
+        } catch (RuntimeException e) {
+            files.clear(); // Missing or malformed option value
+        }
+        if (args.length < 2 || files.isEmpty()) {
+            System.out.println("Usage: CPUSchedulersSimulator --batch <results.csv> <workload file>..."
+                    + " [--schedulers id,...] [--cs time,...] [--quanta quantum,...] [--threads n]");
+            System.out.println("A quantum of 0 keeps each workload's own quanta; quanta only apply to "
+                    + "schedulers that use them.");
+            return;
+        }
+        if (schedulerIds.isEmpty()) {
+            for (Scheduler scheduler : registry.getSchedulers()) {
+                schedulerIds.add(scheduler.getId());
+            }
+        }
 
-                FCAIScheduler fcaiScheduler = new FCAIScheduler(processes);
-                scheduleName = "Process Execution by FCAI Scheduling";
+        // Load every workload once; the experiments share them
+        Map<String, Workload> workloads = new LinkedHashMap<>();
+        for (String file : files) {
+            try {
+                workloads.put(file, WorkloadLoader.load(Paths.get(file)));
+            } catch (IOException e) {
+                System.out.println("Could not load " + file + ": " + e.getMessage());
+                return;
+            }
+        }
 
-                // Generate the schedule and calculate performance metrics
-                schedule = fcaiScheduler.schedule(contextSwitchingTime);
-                averageWaitingTime = fcaiScheduler.calculateAverageWaitingTime(processes);
-                averageTurnaroundTime = fcaiScheduler.calculateAverageTurnaroundTime(processes);
+        BatchRunner runner = new BatchRunner(registry, threads);
+        List<Experiment> experiments;
+        try {
+            experiments = runner.matrix(workloads, schedulerIds, contextSwitchingTimes, quanta);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        long start = System.nanoTime();
+        List<ExperimentResult> results = runner.run(experiments);
+        long end = System.nanoTime();
+        try {
+            BatchRunner.writeCsv(results, Paths.get(args[1]));
+        } catch (IOException e) {
+            System.out.println("Could not write " + args[1] + ": " + e.getMessage());
+            return;
+        }
+        System.out.println(results.size() + " experiments on " + threads + " threads in "
+                + (end - start) / 1_000_000 + " ms, results written to " + args[1]);
+    }
+
+    // Parses a comma-separated list of integers
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
 
-                // Display results for FCAI
-                fcaiScheduler.printResults(processes, schedule);
-                break;
+    // Prints the execution order and the waiting and turnaround time of every process
+    private static void printResults(List<Process> processes, List<ProcessExecution> executionOrder) {
+        // Display the order of execution
+        System.out.println("Process Execution Order:");
+        for (ProcessExecution pe : executionOrder) {
+            System.out.print(pe.getProcessName() + " -> ");
         }
+        System.out.println("end");
 
-        // If a valid schedule is generated, display it using the Gantt chart
-        if (schedule != null) {
-            GanttChart.createAndShowGUI(
-                    schedule,              // List of process executions
-                    scheduleName,          // Name of the scheduling algorithm
-                    averageWaitingTime,    // Average waiting time
-                    averageTurnaroundTime  // Average turnaround time
-            );
+        // Display individual process metrics
+        for (Process p : processes) {
+            System.out.println("Process: " + p.getName());
+            System.out.println("Waiting Time: " + p.getWaitingTime(p.getCompletionTime()));
+            System.out.println("Turnaround Time: " + p.getTurnaroundTime(p.getCompletionTime()) + '\n');
         }
     }
 
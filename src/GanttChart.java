@@ -1,129 +1,281 @@
 import models.ProcessExecution;
+import models.ProcessTable;
+import models.Timeline;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
-import java.util.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 
 public class GanttChart extends JPanel {
-    private final List<ProcessExecution> schedule;  // List to hold process execution data
+    private static final int FRAME_MILLIS = 16;  // How often a live chart takes in new runs (about 60 fps)
+
+    private final GanttRenderer renderer;  // Draws the chart, zoomed and culled to the clip
     private final String scheduleName;  // Name of the scheduling algorithm
     private final double averageWaitingTime;  // Average waiting time of the processes
     private final double averageTurnaroundTime;  // Average turnaround time of the processes
 
     // Constructor to initialize the Gantt chart with schedule, name, and average times
     public GanttChart(List<ProcessExecution> schedule, String scheduleName, double awt, double ata) {
-        this.schedule = schedule;
+        this(GanttRows.of(schedule), scheduleName, awt, ata);
+    }
+
+    // Chart of a timeline, read straight from its columns
+    public GanttChart(Timeline schedule, String scheduleName, double awt, double ata) {
+        this(GanttRows.of(schedule), scheduleName, awt, ata);
+    }
+
+    public GanttChart(GanttRows rows, String scheduleName, double awt, double ata) {
+        this.renderer = new GanttRenderer(rows);
         this.scheduleName = scheduleName;
         this.averageWaitingTime = awt;
         this.averageTurnaroundTime = ata;
-        setBackground(Color.DARK_GRAY);  // Set the background color of the panel
+        setBackground(GanttRenderer.BACKGROUND);  // Set the background color of the panel
+        updateSize();
+
+        // Ctrl + mouse wheel zooms around the mouse; the wheel alone still scrolls
+        addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                setZoom(getZoom() + e.getWheelRotation(), e.getX());
+            } else if (getParent() != null) {
+                getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+            }
+        });
+
+        // Ctrl + plus / minus zoom around the middle of the view, Ctrl + 0 goes back to the default
+        bindKey("ctrl EQUALS", "zoomIn", () -> setZoom(getZoom() - 1, visibleCenterX()));
+        bindKey("ctrl ADD", "zoomIn", () -> setZoom(getZoom() - 1, visibleCenterX()));
+        bindKey("ctrl MINUS", "zoomOut", () -> setZoom(getZoom() + 1, visibleCenterX()));
+        bindKey("ctrl SUBTRACT", "zoomOut", () -> setZoom(getZoom() + 1, visibleCenterX()));
+        bindKey("ctrl 0", "zoomReset", () -> setZoom(GanttRenderer.DEFAULT_ZOOM, visibleCenterX()));
+    }
+
+    public GanttRows getRows() {
+        return renderer.getRows();
+    }
+
+    public GanttRenderer getRenderer() {
+        return renderer;
+    }
+
+    public int getZoom() {
+        return renderer.getZoom();
+    }
+
+    // Zooms to a level (clamped to the usable range), keeping the time under panel x where it is on screen
+    public void setZoom(int newZoom, int anchorX) {
+        int oldZoom = renderer.getZoom();
+        Rectangle visible = getVisibleRect();
+        double anchorTime = renderer.exactTimeAt(anchorX);
+        renderer.setZoom(newZoom);
+        if (renderer.getZoom() == oldZoom) {
+            return;
+        }
+        updateSize();
+
+        // Scroll so the anchor time stays under the same screen position
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        if (viewport != null) {
+            setSize(getPreferredSize());
+            long x = Math.round(renderer.exactXOf(anchorTime)) - (anchorX - visible.x);
+            x = Math.max(0, Math.min(x, getWidth() - viewport.getExtentSize().width));
+            viewport.setViewPosition(new Point((int) x, visible.y));
+        }
+        revalidate();
+        repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Coordinates and spacing for drawing the chart
-        int xOffset = 100;
-        int yOffset = 80;
-        int barHeight = 30;
-        int barSpacing = 40;
-        int timeUnitWidth = 40;
-
-        // Draw the title at the top of the chart
-        g2d.setColor(Color.RED);
-        g2d.setFont(new Font("Arial", Font.BOLD, 30));
-        g2d.drawString("CPU Scheduling Graph", xOffset, 40);
-
-        // Calculate the maximum time unit needed to draw the chart
-        int maxTime = 0;
-        for (ProcessExecution exec : schedule) {
-            maxTime = Math.max(maxTime, exec.startTime + exec.duration);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
         }
+        renderer.paint((Graphics2D) g, clip);
+    }
 
-        // Extract unique process names for creating the rows
-        Set<String> uniqueProcesses = new HashSet<>();
-        for (ProcessExecution exec : schedule) {
-            uniqueProcesses.add(exec.processName);
+    // Takes in the runs the feed published since the last frame and repaints only where they landed: the
+    // new bars, the rows added below the old ones and the time added past the old end (new gridlines and
+    // time labels). Everything is repainted only when the scale changed and the old drawing moved.
+    private void drain(LiveGanttFeed feed) {
+        GanttRows rows = getRows();
+        int oldRowCount = rows.size();
+        long oldEndTime = rows.getEndTime();
+        long oldWidth = renderer.getWidth();
+        long oldHeight = renderer.getHeight();
+        int[] dirty = {Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        int count = feed.drainTo((tableRow, start, end) -> {
+            int row = rows.rowOfTableRow(tableRow);
+            rows.add(row, start, end);
+            dirty[0] = Math.min(dirty[0], start);
+            dirty[1] = Math.max(dirty[1], end);
+            dirty[2] = Math.min(dirty[2], row);
+            dirty[3] = Math.max(dirty[3], row);
+        });
+        if (count == 0) {
+            return;
         }
-        int processCount = uniqueProcesses.size();
 
-        // Adjust the panel size based on the number of processes and execution time
-        int panelWidth = xOffset + (maxTime + 1) * timeUnitWidth + 100;
-        int panelHeight = yOffset + processCount * barSpacing + 200;
-        setPreferredSize(new Dimension(panelWidth, panelHeight));
+        boolean rescaled = renderer.update();
+        if (renderer.getWidth() != oldWidth || renderer.getHeight() != oldHeight) {
+            updateSize();
+            revalidate();
+        }
+        if (rescaled) {
+            repaint();
+            return;
+        }
+        int x = (int) Math.min(renderer.xOf(dirty[0]), Integer.MAX_VALUE);
+        int right = (int) Math.min(renderer.xOf(dirty[1]) + 1, Integer.MAX_VALUE);
+        int y = renderer.rowY(dirty[2]);
+        repaint(x, y, right - x, renderer.rowY(dirty[3]) + GanttRenderer.BAR_HEIGHT - y);
+        if (rows.size() > oldRowCount) {
+            // Row labels, and the gridlines and time labels pushed down by the new rows
+            y = renderer.rowY(oldRowCount) - GanttRenderer.BAR_SPACING;
+            repaint(0, y, getWidth(), getHeight() - y);
+        }
+        if (rows.getEndTime() > oldEndTime) {
+            x = (int) Math.min(renderer.xOf(oldEndTime), Integer.MAX_VALUE) - GanttRenderer.MIN_GRID_SPACING;
+            repaint(x, 0, getWidth() - x, getHeight());
+        }
+    }
 
-        // Draw gridlines and time labels for the x-axis
-        g2d.setColor(new Color(100, 100, 100));
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
+    // Panel size of the whole chart at the current zoom
+    private void updateSize() {
+        setPreferredSize(new Dimension((int) Math.min(renderer.getWidth(), Integer.MAX_VALUE),
+                (int) Math.min(renderer.getHeight(), Integer.MAX_VALUE)));
+    }
 
-        // Draw vertical gridlines for each time unit
-        for (int i = 0; i <= maxTime; i++) {
-            int xPosition = xOffset + i * timeUnitWidth;
+    private int visibleCenterX() {
+        Rectangle visible = getVisibleRect();
+        return visible.x + visible.width / 2;
+    }
 
-            // Draw the gridline
-            g2d.drawLine(xPosition, yOffset - 20, xPosition, yOffset + processCount * barSpacing + 20);
+    private void bindKey(String keyStroke, String name, Runnable action) {
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(keyStroke), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+        });
+    }
 
-            // Draw the time labels (e.g., 0, 1, 2, etc.) below the gridline
-            g2d.setColor(Color.WHITE);
-            g2d.drawString(String.valueOf(i), xPosition - 5, yOffset + processCount * barSpacing + 30);
-        }
+    // Create and display the GUI for the Gantt chart
+    public static void createAndShowGUI(List<ProcessExecution> schedule, String scheduleName, double awt, double ata) {
+        createAndShowGUI(new GanttChart(schedule, scheduleName, awt, ata));
+    }
+
+    // Create and display the GUI for the Gantt chart of a timeline
+    public static void createAndShowGUI(Timeline schedule, String scheduleName, double awt, double ata) {
+        createAndShowGUI(new GanttChart(schedule, scheduleName, awt, ata));
+    }
 
-        // Draw the process bars and corresponding labels
-        int processIndex = 0;
-        for (String processName : uniqueProcesses) {
-            for (ProcessExecution exec : schedule) {
-                if (exec.processName.equals(processName)) {
-                    int barStartX = xOffset + exec.startTime * timeUnitWidth;  // X position of the bar
-                    int yPosition = yOffset + processIndex * barSpacing;  // Y position for the row
-
-                    // Draw a rounded process bar with the color specific to the process
-                    g2d.setColor(exec.color);
-                    g2d.fill(new RoundRectangle2D.Double(barStartX, yPosition, exec.duration * timeUnitWidth, barHeight, 10, 10));
-
-                    // Draw the process name inside the bar
-                    g2d.setColor(Color.BLACK);
-                    g2d.drawString(exec.processName, barStartX + 5, yPosition + barHeight / 2 + 5);
+    // Opens a chart that fills in while the simulation feeding it runs: every frame the Swing thread takes the
+    // runs published so far and draws them. Once the feed is closed and drained, a chart that had runs
+    // coalesced is replaced by the exact one from the run's timeline, and the statistics and legend are added
+    // (or a note, when the simulation ended without results). Returns at once; may be called from any thread.
+    public static void createAndShowLive(LiveGanttFeed feed, String scheduleName) {
+        SwingUtilities.invokeLater(() -> {
+            GanttChart gridPanel = new GanttChart(new GanttRows(feed.getWorkload().toTable()), scheduleName, 0, 0);
+            JPanel mainPanel = createMainPanel(gridPanel);
+            JPanel runningPanel = createRunningPanel(scheduleName, "Simulation running...");
+            mainPanel.add(runningPanel, BorderLayout.SOUTH);
+            JFrame frame = createFrame(mainPanel);
+
+            Timer timer = new Timer(FRAME_MILLIS, null);
+            timer.addActionListener(e -> {
+                gridPanel.drain(feed);
+                if (!feed.isDone()) {
+                    return;
                 }
-            }
+                timer.stop();
+                GanttChart chart = gridPanel;
+                if (feed.isCoalesced() && feed.getTimeline() != null) {
+                    chart = new GanttChart(feed.getTimeline(), scheduleName, 0, 0);
+                    chart.renderer.setZoom(gridPanel.getZoom());
+                    chart.updateSize();
+                    JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, gridPanel);
+                    Point position = viewport.getViewPosition();
+                    viewport.setView(chart);
+                    viewport.setViewPosition(position);
+                }
+                ProcessTable results = feed.getResults();
+                mainPanel.remove(runningPanel);
+                if (results != null) {
+                    mainPanel.add(createStatsPanel(scheduleName, feed.getAverageWaitingTime(),
+                            feed.getAverageTurnaroundTime()), BorderLayout.SOUTH);
+                    mainPanel.add(new ProcessLegend(chart.getRows(), results), BorderLayout.EAST);
+                } else {
+                    mainPanel.add(createRunningPanel(scheduleName, "Simulation stopped before it finished"),
+                            BorderLayout.SOUTH);
+                }
+                mainPanel.revalidate();
+                mainPanel.repaint();
+            });
+            // A running timer keeps the JVM alive, so it goes with the window
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    timer.stop();
+                }
+            });
+            timer.start();
+        });
+    }
 
-            // Draw the process name label to the left of the bar
-            g2d.setColor(Color.WHITE);
-            g2d.drawString("Process: " + processName, xOffset - 90, yOffset + processIndex * barSpacing + barHeight / 2 + 5);
+    private static void createAndShowGUI(GanttChart gridPanel) {
+        JPanel mainPanel = createMainPanel(gridPanel);
 
-            processIndex++;  // Move to the next row for the next process
-        }
+        // Create and add statistics and legend panels
+        JPanel statsPanel = createStatsPanel(gridPanel.scheduleName, gridPanel.averageWaitingTime,
+                gridPanel.averageTurnaroundTime);
+        JPanel legendPanel = new ProcessLegend(gridPanel.getRows());
+        mainPanel.add(statsPanel, BorderLayout.SOUTH);
+        mainPanel.add(legendPanel, BorderLayout.EAST);
+        createFrame(mainPanel);
     }
 
-    // Create and display the GUI for the Gantt chart
-    public static void createAndShowGUI(List<ProcessExecution> schedule, String scheduleName, double awt, double ata) {
-        JFrame frame = new JFrame("Scheduling Graph");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-
-        // Create the GanttChart panel with the schedule, name, and average times
-        GanttChart gridPanel = new GanttChart(schedule, scheduleName, awt, ata);
+    // Main panel with the Gantt chart in its center
+    private static JPanel createMainPanel(GanttChart gridPanel) {
+        // Put the Gantt chart in a scroll pane; scrolling by a gridline spacing or a row at a time
         JScrollPane scrollPane = new JScrollPane(gridPanel);
         scrollPane.setPreferredSize(new Dimension(1200, 800));  // Set scrollable panel size
+        scrollPane.getHorizontalScrollBar().setUnitIncrement(GanttRenderer.MIN_GRID_SPACING);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(GanttRenderer.BAR_SPACING);
 
         // Create the main panel to hold the Gantt chart and other components
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(Color.DARK_GRAY);
         mainPanel.add(scrollPane, BorderLayout.CENTER);  // Add the chart to the center
+        return mainPanel;
+    }
 
-        // Create and add statistics and legend panels
-        JPanel statsPanel = createStatsPanel(scheduleName, awt, ata);
-        JPanel legendPanel = createLegendPanel(schedule);
-        mainPanel.add(statsPanel, BorderLayout.SOUTH);
-        mainPanel.add(legendPanel, BorderLayout.EAST);
+    private static JFrame createFrame(JPanel mainPanel) {
+        JFrame frame = new JFrame("Scheduling Graph");
+        // Closing the window only disposes of it: the JVM still exits once no window is left, but a program
+        // that shows the chart and carries on is not killed
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Set up the frame and make it visible
         frame.add(mainPanel);
         frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
         frame.setVisible(true);
+        return frame;
+    }
+
+    // Stand-in for the statistics while the simulation runs, or when it ended without results
+    private static JPanel createRunningPanel(String scheduleName, String status) {
+        JPanel runningPanel = new JPanel();
+        runningPanel.setBackground(Color.DARK_GRAY);
+        runningPanel.setLayout(new BoxLayout(runningPanel, BoxLayout.Y_AXIS));
+        runningPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        runningPanel.add(createLabel("Schedule Name: " + scheduleName));
+        runningPanel.add(createLabel(status));
+        return runningPanel;
     }
 
     // Create a panel to display scheduling statistics like average waiting and turnaround times
@@ -142,58 +294,11 @@ public class GanttChart extends JPanel {
         statsPanel.add(createLabel("Schedule Name: " + scheduleName));
         statsPanel.add(createLabel("Average Waiting Time: " + String.format("%.2f", awt)));
         statsPanel.add(createLabel("Average Turnaround Time: " + String.format("%.2f", ata)));
+        statsPanel.add(createLabel("Zoom: Ctrl + mouse wheel, Ctrl + plus / minus, Ctrl + 0 to reset"));
 
         return statsPanel;
     }
 
-    // Create a panel to display information about each process in the scheduling
-    private static JPanel createLegendPanel(List<ProcessExecution> schedule) {
-        JPanel legendPanel = new JPanel(new BorderLayout());
-        legendPanel.setBackground(Color.DARK_GRAY);
-        legendPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 0, 20));
-
-        // Title for the legend panel
-        JLabel titleLabel = new JLabel("Processes Information");
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
-        titleLabel.setForeground(Color.RED);
-        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        legendPanel.add(titleLabel, BorderLayout.NORTH);
-
-        // Panel to hold process info like color, name, PID, and priority
-        JPanel processListPanel = new JPanel();
-        processListPanel.setBackground(Color.DARK_GRAY);
-        processListPanel.setLayout(new BoxLayout(processListPanel, BoxLayout.Y_AXIS));
-
-        Set<String> uniqueProcesses = new HashSet<>();
-        for (ProcessExecution exec : schedule) {
-            if (uniqueProcesses.add(exec.processName)) {
-                // Create a panel for each process information
-                JPanel processInfoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
-                processInfoPanel.setBackground(Color.DARK_GRAY);
-
-                // Color box representing the process color
-                JLabel colorBox = new JLabel();
-                colorBox.setOpaque(true);
-                colorBox.setBackground(exec.color);
-                colorBox.setPreferredSize(new Dimension(20, 20));
-
-                // Process name, PID, and priority display
-                JLabel processLabel = new JLabel(String.format(" Name: %s | PID: %s | Priority: %s",
-                        exec.processName, exec.pid, exec.priority));
-                processLabel.setFont(new Font("Arial", Font.BOLD, 16));
-                processLabel.setForeground(Color.WHITE);
-
-                processInfoPanel.add(colorBox);
-                processInfoPanel.add(processLabel);
-                processListPanel.add(processInfoPanel);
-            }
-        }
-
-        // Add the list of processes to the legend panel
-        legendPanel.add(new JScrollPane(processListPanel), BorderLayout.CENTER);
-        return legendPanel;
-    }
-
     // Helper method to create labeled text for stats and other sections
     private static JLabel createLabel(String text) {
         JLabel label = new JLabel(text);
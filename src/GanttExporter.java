@@ -0,0 +1,291 @@
+import models.Timeline;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Writes a Gantt chart to a PNG or SVG file without a window, so batch runs can save their schedules on a
+// machine without a screen (java.awt.headless=true). The chart is the one GanttChart shows, at a given zoom.
+//
+// Neither format builds the whole image in memory. A PNG is drawn in horizontal strips of at most
+// STRIP_PIXELS pixels that are compressed as soon as they are drawn; an SVG is written element by element
+// straight from the rows (slices when zoomed in, runs of pixel columns when zoomed out). PNG scanlines are
+// whole rows of the image, so its width is limited to MAX_WIDTH; a long schedule is written zoomed out. Its
+// height, BAR_SPACING per process, is limited to MAX_HEIGHT: a chart of more processes is refused (an SVG
+// has no such limit).
+public class GanttExporter {
+    public static final int MAX_WIDTH = 65535;        // Widest PNG, and widest chart written from a timeline
+    public static final int MAX_HEIGHT = 65535;       // Tallest PNG (about 1600 processes)
+    public static final long MAX_PIXELS = 1L << 28;   // Largest chart written from a timeline (a few seconds)
+    private static final int STRIP_PIXELS = 1 << 23;  // Most pixels drawn at once for a PNG
+    private static final int MAX_STRIP_HEIGHT = 256;
+    private static final int IDAT_SIZE = 1 << 16;     // Largest PNG data chunk written
+    private static final byte[] PNG_SIGNATURE = {(byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n'};
+
+    // Writes the timeline's chart at the default zoom, or zoomed out as far as needed to keep it within
+    // MAX_WIDTH pixels across and MAX_PIXELS in all; the format is chosen by the file's extension
+    public static void write(Timeline timeline, Path file) throws IOException {
+        GanttRenderer renderer = new GanttRenderer(GanttRows.of(timeline));
+        while ((renderer.getWidth() > MAX_WIDTH || renderer.getWidth() * renderer.getHeight() > MAX_PIXELS)
+                && renderer.getZoom() < renderer.getMaxZoom()) {
+            renderer.setZoom(renderer.getZoom() + 1);
+        }
+        write(renderer, file);
+    }
+
+    // Writes the chart at the renderer's zoom; the format is chosen by the file's extension (.png or .svg)
+    public static void write(GanttRenderer renderer, Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".png")) {
+            checkPngSize(renderer); // Before the file is created
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                writePng(renderer, out);
+            }
+        } else if (name.endsWith(".svg")) {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writeSvg(renderer, out);
+            }
+        } else {
+            throw new IllegalArgumentException("Gantt charts can be written as .png or .svg: " + file);
+        }
+    }
+
+    // Draws the chart strip by strip and streams it out as an RGB PNG
+    public static void writePng(GanttRenderer renderer, OutputStream out) throws IOException {
+        checkPngSize(renderer);
+        int width = (int) renderer.getWidth();
+        int height = (int) renderer.getHeight();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(PNG_SIGNATURE);
+
+        // Header: 8-bit RGB, no interlacing
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;
+        header[9] = 2;
+        writeChunk(data, "IHDR", header, header.length);
+
+        // Image data: each scanline is a filter byte (0, none) and its RGB bytes
+        int stripHeight = Math.max(1, Math.min(MAX_STRIP_HEIGHT, Math.min(height, STRIP_PIXELS / width)));
+        BufferedImage strip = new BufferedImage(width, stripHeight, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        byte[] scanline = new byte[1 + 3 * width];
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream image = new DeflaterOutputStream(new ChunkStream(data), deflater, IDAT_SIZE)) {
+            for (int top = 0; top < height; top += stripHeight) {
+                int rows = Math.min(stripHeight, height - top);
+                Graphics2D g2d = strip.createGraphics();
+                try {
+                    Rectangle clip = new Rectangle(0, top, width, rows);
+                    g2d.translate(0, -top);
+                    g2d.setClip(clip);
+                    renderer.paint(g2d, clip);
+                } finally {
+                    g2d.dispose();
+                }
+                for (int y = 0; y < rows; y++) {
+                    for (int x = 0, from = y * width, i = 1; x < width; x++) {
+                        int rgb = pixels[from + x];
+                        scanline[i++] = (byte) (rgb >> 16);
+                        scanline[i++] = (byte) (rgb >> 8);
+                        scanline[i++] = (byte) rgb;
+                    }
+                    image.write(scanline);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        writeChunk(data, "IEND", new byte[0], 0);
+        data.flush();
+    }
+
+    private static void checkPngSize(GanttRenderer renderer) {
+        long width = renderer.getWidth();
+        long height = renderer.getHeight();
+        if (width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Chart too wide for a PNG at this zoom: " + width + "x" + height);
+        }
+        if (height > MAX_HEIGHT) {
+            throw new IllegalArgumentException("Chart too tall for a PNG (" + renderer.getRows().size()
+                    + " processes, " + width + "x" + height + "); write it as .svg instead");
+        }
+    }
+
+    // Streams the chart out as SVG: the same title, gridlines, labels and bars as on screen
+    public static void writeSvg(GanttRenderer renderer, Writer out) throws IOException {
+        Writer svg = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        GanttRows rows = renderer.getRows();
+        long width = renderer.getWidth();
+        long height = renderer.getHeight();
+        int gridBottom = renderer.gridBottom();
+        svg.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        svg.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                + "\" font-family=\"Arial\" font-weight=\"bold\" font-size=\"16\">\n");
+        svg.write("<rect width=\"100%\" height=\"100%\" fill=\"" + hex(GanttRenderer.BACKGROUND) + "\"/>\n");
+        svg.write("<text x=\"" + GanttRenderer.X_OFFSET + "\" y=\"40\" font-size=\"30\" fill=\""
+                + hex(Color.RED) + "\">" + GanttRenderer.TITLE + "</text>\n");
+
+        // Gridlines and their time labels
+        long step = renderer.getGridStep();
+        svg.write("<g stroke=\"" + hex(GanttRenderer.GRID_COLOR) + "\">\n");
+        for (long time = 0; time <= rows.getEndTime(); time += step) {
+            long x = renderer.xOf(time);
+            svg.write("<line x1=\"" + x + "\" y1=\"" + (GanttRenderer.Y_OFFSET - 20) + "\" x2=\"" + x
+                    + "\" y2=\"" + gridBottom + "\"/>\n");
+        }
+        svg.write("</g>\n<g fill=\"" + hex(Color.WHITE) + "\">\n");
+        for (long time = 0; time <= rows.getEndTime(); time += step) {
+            svg.write("<text x=\"" + (renderer.xOf(time) - 5) + "\" y=\"" + (gridBottom + 10) + "\">" + time
+                    + "</text>\n");
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            svg.write("<text x=\"" + (GanttRenderer.X_OFFSET - 90) + "\" y=\""
+                    + (renderer.rowY(row) + GanttRenderer.BAR_HEIGHT / 2 + 5) + "\">"
+                    + escape(renderer.rowLabel(row)) + "</text>\n");
+        }
+        svg.write("</g>\n");
+
+        // The bars, one group per row
+        GanttRows.Level level = renderer.getLevel();
+        for (int row = 0; row < rows.size(); row++) {
+            int y = renderer.rowY(row);
+            if (level == null) {
+                writeSlices(svg, renderer, row, y);
+            } else {
+                writeAggregates(svg, renderer, level, row, y);
+            }
+        }
+        svg.write("</svg>\n");
+        svg.flush();
+    }
+
+    // Slices of a row as rounded bars with the process name in the wide ones
+    private static void writeSlices(Writer svg, GanttRenderer renderer, int row, int y) throws IOException {
+        GanttRows rows = renderer.getRows();
+        String name = escape(rows.getName(row));
+        svg.write("<g fill=\"" + hex(rows.getColor(row)) + "\">\n");
+        for (int slice = 0; slice < rows.getSliceCount(row); slice++) {
+            long x = renderer.xOf(rows.getStart(row, slice));
+            long barWidth = renderer.xOf(rows.getEnd(row, slice)) - x;
+            svg.write("<rect x=\"" + x + "\" y=\"" + y + "\" width=\"" + barWidth + "\" height=\""
+                    + GanttRenderer.BAR_HEIGHT + (barWidth >= GanttRenderer.ROUND_WIDTH ? "\" rx=\"5" : "")
+                    + "\"/>\n");
+            if (barWidth >= GanttRenderer.MIN_NAME_WIDTH) {
+                svg.write("<text x=\"" + (x + 5) + "\" y=\"" + (y + GanttRenderer.BAR_HEIGHT / 2 + 5)
+                        + "\" fill=\"" + hex(Color.BLACK) + "\">" + name + "</text>\n");
+            }
+        }
+        svg.write("</g>\n");
+    }
+
+    // Runs of pixel columns of a row, shaded by how busy the process was in them
+    private static void writeAggregates(Writer svg, GanttRenderer renderer, GanttRows.Level level, int row, int y)
+            throws IOException {
+        svg.write("<g>\n");
+        for (int run = 0; run < level.getRunCount(row); run++) {
+            int from = level.getFrom(row, run);
+            svg.write("<rect x=\"" + (GanttRenderer.X_OFFSET + from) + "\" y=\"" + y + "\" width=\""
+                    + (level.getTo(row, run) - from) + "\" height=\"" + GanttRenderer.BAR_HEIGHT + "\" fill=\""
+                    + hex(renderer.shade(level, row, run)) + "\"/>\n");
+        }
+        svg.write("</g>\n");
+    }
+
+    private static String hex(Color color) {
+        return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+    }
+
+    // Text with the XML special characters escaped
+    private static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String entity = c == '&' ? "&amp;" : c == '<' ? "&lt;" : c == '>' ? "&gt;" : c == '"' ? "&quot;" : null;
+            if (entity != null && escaped == null) {
+                escaped = new StringBuilder(text.substring(0, i));
+            }
+            if (escaped != null) {
+                escaped.append(entity != null ? entity : String.valueOf(c));
+            }
+        }
+        return escaped == null ? text : escaped.toString();
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    // Cuts the compressed image data into IDAT chunks of at most IDAT_SIZE bytes
+    private static class ChunkStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte[] buffer = new byte[IDAT_SIZE];
+        private int size;
+
+        ChunkStream(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == buffer.length) {
+                flushChunk();
+            }
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (size == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(length, buffer.length - size);
+                System.arraycopy(bytes, offset, buffer, size, n);
+                size += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        // Writes what is left; the PNG stream itself stays open for the end chunk
+        @Override
+        public void close() throws IOException {
+            if (size > 0) {
+                flushChunk();
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            writeChunk(out, "IDAT", buffer, size);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import java.awt.*;
+import java.util.Arrays;
+
+// Draws a Gantt chart of GanttRows onto any Graphics2D: the window's panel, or an image when exporting
+// without a screen. It uses no Swing, so it works with java.awt.headless=true.
+//
+// Only what lies in the clip is painted: the gridlines of the visible time range and, for each visible row,
+// the slices overlapping it (found by binary search). Zoomed out past one time unit per pixel, a row is
+// drawn from the aggregates of its pyramid level instead: one rectangle per run of busy pixel columns,
+// shaded by how much of each column the process ran. Painting a region costs the same on any schedule size.
+public class GanttRenderer {
+    // Layout of the chart
+    static final int X_OFFSET = 100;        // Left margin, where the row labels go
+    static final int Y_OFFSET = 80;         // Top of the first row
+    static final int BAR_HEIGHT = 30;
+    static final int BAR_SPACING = 40;      // Distance between the tops of two rows
+    static final int TITLE_HEIGHT = 50;     // Band at the top holding the title
+    static final int MIN_GRID_SPACING = 40; // Least pixels between two gridlines
+    static final int MIN_NAME_WIDTH = 20;   // Narrowest bar with the process name in it
+    static final int ROUND_WIDTH = 10;      // Narrowest bar drawn with rounded corners
+    static final String TITLE = "CPU Scheduling Graph";
+
+    // Zoom levels: pixels per time unit while zoomed in, then 2, 4, 8, ... time units per pixel, drawn from
+    // the aggregates of that level of the rows' pyramid
+    private static final int[] ZOOM_IN_WIDTHS = {160, 80, 40, 20, 10, 5, 2, 1};
+    public static final int DEFAULT_ZOOM = 2;             // 40 pixels per time unit
+    private static final int MAX_PANEL_WIDTH = 1 << 22;   // Widest chart zooming in may make
+    private static final int FIT_WIDTH = 1024;            // Fully zoomed out, the schedule fits in this
+
+    // Fonts and colors are made once instead of on every paint
+    static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 30);
+    static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 16);
+    static final Color BACKGROUND = Color.DARK_GRAY;
+    static final Color GRID_COLOR = new Color(100, 100, 100);
+    static final int SHADES = 16; // Opacities a zoomed-out column can have, by how busy it is
+
+    private final GanttRows rows;  // Slices by process row, indexed by time
+    private String[] rowLabels = new String[0];  // "Process: name" of each row, made when first painted
+    private Color[][] rowShades = new Color[0][]; // Faded colors of each row, made when first drawn zoomed out
+    private final char[] digits = new char[20];  // Buffer for time labels, so painting allocates nothing
+
+    // Current zoom
+    private int zoom;
+    private int minZoom;       // Most zoomed in, keeping the chart narrower than MAX_PANEL_WIDTH
+    private int maxZoom;       // Most zoomed out, fitting the schedule in about FIT_WIDTH pixels
+    private int unitWidth;     // Pixels per time unit (1 when zoomed out further)
+    private int shift;         // Time units per pixel are 2^shift (0 when zoomed in)
+    private long gridStep;     // Time units between gridlines
+
+    // Starts at 40 pixels per time unit, or zoomed out as far as needed to keep the chart usable
+    public GanttRenderer(GanttRows rows) {
+        this.rows = rows;
+        updateZoomRange();
+        zoom = Math.max(minZoom, Math.min(DEFAULT_ZOOM, maxZoom));
+        updateScale();
+    }
+
+    public GanttRows getRows() {
+        return rows;
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+    public int getMinZoom() {
+        return minZoom;
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    // Zooms to a level, clamped to the usable range
+    public void setZoom(int newZoom) {
+        zoom = Math.max(minZoom, Math.min(newZoom, maxZoom));
+        updateScale();
+    }
+
+    // Brings the zoom range and scale up to date after slices were added to the rows; returns whether the
+    // scale or gridlines changed, i.e. whether everything already drawn has moved
+    public boolean update() {
+        int oldUnitWidth = unitWidth;
+        int oldShift = shift;
+        long oldGridStep = gridStep;
+        updateZoomRange();
+        zoom = Math.max(minZoom, Math.min(zoom, maxZoom));
+        updateScale();
+        return unitWidth != oldUnitWidth || shift != oldShift || gridStep != oldGridStep;
+    }
+
+    // Size of the whole chart in pixels at the current zoom
+    public long getWidth() {
+        return xOf(rows.getEndTime() + 1L) + 100;
+    }
+
+    public long getHeight() {
+        return Y_OFFSET + (long) rows.size() * BAR_SPACING + 200;
+    }
+
+    // Chart x of a time
+    public long xOf(long time) {
+        return X_OFFSET + ((time * unitWidth) >> shift);
+    }
+
+    // Time at a chart x, rounded down
+    public long timeAt(long x) {
+        return Math.floorDiv((x - X_OFFSET) << shift, unitWidth);
+    }
+
+    // Time at a chart x, with the fraction
+    public double exactTimeAt(double x) {
+        return (x - X_OFFSET) * (1L << shift) / unitWidth;
+    }
+
+    // Chart x of a time with a fraction
+    public double exactXOf(double time) {
+        return X_OFFSET + time * unitWidth / (1L << shift);
+    }
+
+    // Time units between gridlines
+    public long getGridStep() {
+        return gridStep;
+    }
+
+    // Pyramid level drawn at this zoom, null when slices are drawn one by one
+    public GanttRows.Level getLevel() {
+        return shift == 0 ? null : rows.getLevel(shift);
+    }
+
+    // Top of a row
+    public int rowY(int row) {
+        return Y_OFFSET + row * BAR_SPACING;
+    }
+
+    // Bottom of the gridlines, under the last row
+    public int gridBottom() {
+        return Y_OFFSET + rows.size() * BAR_SPACING + 20;
+    }
+
+    // Paints the part of the chart inside clip, background included
+    public void paint(Graphics2D g2d, Rectangle clip) {
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Draw the title at the top of the chart
+        if (clip.y < TITLE_HEIGHT) {
+            g2d.setColor(Color.RED);
+            g2d.setFont(TITLE_FONT);
+            g2d.drawString(TITLE, X_OFFSET, 40);
+        }
+
+        // Visible time range and rows
+        int maxTime = rows.getEndTime();
+        int processCount = rows.size();
+        long firstTime = Math.max(0, timeAt(clip.x) - 1);
+        long lastTime = Math.min(maxTime, timeAt((long) clip.x + clip.width) + 1);
+        int firstRow = Math.max(0, (clip.y - Y_OFFSET) / BAR_SPACING);
+        int lastRow = (int) Math.min(processCount - 1, ((long) clip.y + clip.height - Y_OFFSET) / BAR_SPACING);
+        int gridBottom = gridBottom();
+        g2d.setFont(LABEL_FONT);
+
+        // Draw vertical gridlines for the visible time range, with their time labels below
+        for (long i = firstTime / gridStep * gridStep; i <= lastTime; i += gridStep) {
+            int xPosition = (int) xOf(i);
+            g2d.setColor(GRID_COLOR);
+            g2d.drawLine(xPosition, Y_OFFSET - 20, xPosition, gridBottom);
+            g2d.setColor(Color.WHITE);
+            drawNumber(g2d, i, xPosition - 5, gridBottom + 10);
+        }
+
+        // Draw the process bars of the visible rows and their labels (pixel columns need no antialiasing)
+        GanttRows.Level level = getLevel();
+        if (level != null) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            int yPosition = rowY(row);  // Y position for the row
+            if (level == null) {
+                paintSlices(g2d, row, yPosition, firstTime, lastTime);
+            } else {
+                paintAggregates(g2d, level, row, yPosition, firstTime >> shift, lastTime >> shift);
+            }
+
+            // Draw the process name label to the left of the bar
+            if (clip.x < X_OFFSET) {
+                g2d.setColor(Color.WHITE);
+                g2d.drawString(rowLabel(row), X_OFFSET - 90, yPosition + BAR_HEIGHT / 2 + 5);
+            }
+        }
+    }
+
+    // Draws the slices of a row that overlap [firstTime, lastTime]
+    private void paintSlices(Graphics2D g2d, int row, int yPosition, long firstTime, long lastTime) {
+        String processName = rows.getName(row);
+        Color color = rows.getColor(row);
+        int sliceCount = rows.getSliceCount(row);
+        for (int slice = rows.firstEndingAfter(row, firstTime); slice < sliceCount; slice++) {
+            int start = rows.getStart(row, slice);
+            if (start > lastTime) {
+                break;
+            }
+            int barStartX = (int) xOf(start);  // X position of the bar
+            int barWidth = (int) (xOf(rows.getEnd(row, slice)) - barStartX);
+
+            // Draw a rounded process bar with the color specific to the process (square when too thin)
+            g2d.setColor(color);
+            if (barWidth >= ROUND_WIDTH) {
+                g2d.fillRoundRect(barStartX, yPosition, barWidth, BAR_HEIGHT, 10, 10);
+            } else {
+                g2d.fillRect(barStartX, yPosition, barWidth, BAR_HEIGHT);
+            }
+
+            // Draw the process name inside the bar when there is room for some of it
+            if (barWidth >= MIN_NAME_WIDTH) {
+                g2d.setColor(Color.BLACK);
+                g2d.drawString(processName, barStartX + 5, yPosition + BAR_HEIGHT / 2 + 5);
+            }
+        }
+    }
+
+    // Draws the pixel columns (buckets of the level) of a row from firstBucket to lastBucket: fully busy
+    // runs in the process color, partly busy columns faded in proportion to the time the process ran
+    private void paintAggregates(Graphics2D g2d, GanttRows.Level level, int row, int yPosition,
+                                 long firstBucket, long lastBucket) {
+        int runCount = level.getRunCount(row);
+        for (int run = level.firstEndingAfter(row, firstBucket); run < runCount; run++) {
+            int from = level.getFrom(row, run);
+            if (from > lastBucket) {
+                break;
+            }
+            g2d.setColor(shade(level, row, run));
+            g2d.fillRect(X_OFFSET + from, yPosition, level.getTo(row, run) - from, BAR_HEIGHT);
+        }
+    }
+
+    // Color of a run of pixel columns of a level, by how busy the process was in them
+    Color shade(GanttRows.Level level, int row, int run) {
+        long busy = level.getBusy(row, run);
+        return shades(row)[(int) ((busy * SHADES - 1) / level.getBucketTime())];
+    }
+
+    // The process color blended over the background at each opacity of SHADES, made when the row is first
+    // drawn zoomed out (opaque colors fill much faster than translucent ones)
+    private Color[] shades(int row) {
+        if (row >= rowShades.length) {
+            rowShades = Arrays.copyOf(rowShades, Math.max(row + 1, rowShades.length * 2));
+        }
+        if (rowShades[row] == null) {
+            Color color = rows.getColor(row);
+            Color[] shades = new Color[SHADES];
+            for (int i = 0; i < SHADES; i++) {
+                shades[i] = new Color(blend(BACKGROUND.getRed(), color.getRed(), i + 1),
+                        blend(BACKGROUND.getGreen(), color.getGreen(), i + 1),
+                        blend(BACKGROUND.getBlue(), color.getBlue(), i + 1));
+            }
+            rowShades[row] = shades;
+        }
+        return rowShades[row];
+    }
+
+    private static int blend(int background, int color, int shade) {
+        return background + (color - background) * shade / SHADES;
+    }
+
+    // Label to the left of a row
+    String rowLabel(int row) {
+        if (row >= rowLabels.length) {
+            rowLabels = Arrays.copyOf(rowLabels, Math.max(row + 1, rowLabels.length * 2));
+        }
+        if (rowLabels[row] == null) {
+            rowLabels[row] = "Process: " + rows.getName(row);
+        }
+        return rowLabels[row];
+    }
+
+    // Draws a non-negative number without making a string of it
+    private void drawNumber(Graphics2D g2d, long value, int x, int y) {
+        int from = digits.length;
+        do {
+            digits[--from] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        g2d.drawChars(digits, from, digits.length - from, x, y);
+    }
+
+    // Zoom levels that keep the chart narrower than MAX_PANEL_WIDTH and go out until the schedule fits
+    private void updateZoomRange() {
+        long endTime = rows.getEndTime() + 1L;
+        int zoomedOut = 0;
+        while ((endTime >> zoomedOut) > FIT_WIDTH) {
+            zoomedOut++;
+        }
+        maxZoom = ZOOM_IN_WIDTHS.length - 1 + zoomedOut;
+        minZoom = 0;
+        while (minZoom < maxZoom && widthAt(minZoom, endTime) > MAX_PANEL_WIDTH) {
+            minZoom++;
+        }
+    }
+
+    private static long widthAt(int zoom, long time) {
+        int last = ZOOM_IN_WIDTHS.length - 1;
+        return zoom <= last ? time * ZOOM_IN_WIDTHS[zoom] : time >> (zoom - last);
+    }
+
+    // Scale and gridline spacing for the current zoom
+    private void updateScale() {
+        int last = ZOOM_IN_WIDTHS.length - 1;
+        unitWidth = ZOOM_IN_WIDTHS[Math.min(zoom, last)];
+        shift = Math.max(0, zoom - last);
+
+        // Gridlines every 1, 2, 5, 10, 20, 50, ... time units, far enough apart for their labels
+        int labelWidth = 10 * Long.toString(rows.getEndTime()).length() + 15;
+        long minSpacing = Math.max(MIN_GRID_SPACING, labelWidth);
+        gridStep = 1;
+        for (int i = 0; ((gridStep * unitWidth) >> shift) < minSpacing; i++) {
+            gridStep = (i % 3 == 1 ? gridStep / 2 * 5 : gridStep * 2);
+        }
+    }
+}
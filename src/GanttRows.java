@@ -0,0 +1,403 @@
+import models.ProcessExecution;
+import models.ProcessTable;
+import models.Timeline;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Slices of a schedule grouped into one row per process, in the order the processes first ran. A process never
+// runs twice at the same time, so each row keeps its slices' start and end times in time order and the slices
+// of a row that overlap a time range are found with a binary search instead of a pass over the schedule.
+//
+// For zoomed-out views the rows also keep a pyramid of aggregates: level k splits time into buckets of 2^k
+// time units (one pixel column each when drawn at 2^k units per pixel) and records how busy each bucket of a
+// row is. A level is built the first time it is needed, from the nearest finer level already built (or the
+// slices), and then kept up to date as slices are added, so drawing a zoomed-out row costs the number of
+// columns rather than slices.
+public class GanttRows {
+    private static final int INITIAL_ROWS = 16;
+    private static final int INITIAL_SLICES = 4;
+
+    private final ProcessTable table;     // Table the schedule ran on, null if only executions were given
+    private int[] rowOfTableRow;          // Chart row of each table row, -1 before the process first runs
+    private final Map<Integer, Integer> rowOfPid = new HashMap<>(); // Chart row by PID, when there is no table
+
+    // Per chart row
+    private int rowCount;
+    private String[] names = new String[INITIAL_ROWS];
+    private Color[] colors = new Color[INITIAL_ROWS];
+    private int[] pids = new int[INITIAL_ROWS];
+    private int[] priorities = new int[INITIAL_ROWS];
+    private int[] tableRows = new int[INITIAL_ROWS];   // Row in the table, -1 if there is no table
+    private int[][] starts = new int[INITIAL_ROWS][];  // Start of each slice, ascending
+    private int[][] ends = new int[INITIAL_ROWS][];    // End of each slice, ascending
+    private int[] sliceCounts = new int[INITIAL_ROWS];
+
+    private long sliceCount;  // Slices in every row
+    private int endTime;      // Latest end of a slice
+    private Level[] levels = new Level[1]; // Aggregates by level, levels[k] null until built (level 0 is the slices)
+
+    // Empty rows for slices of processes of the given table (null when slices come as executions)
+    public GanttRows(ProcessTable table) {
+        this.table = table;
+        this.rowOfTableRow = new int[table == null ? 0 : table.size()];
+        Arrays.fill(rowOfTableRow, -1);
+    }
+
+    // Rows of a timeline, taken straight from its columns
+    public static GanttRows of(Timeline timeline) {
+        GanttRows rows = new GanttRows(timeline.getTable());
+        for (int i = 0; i < timeline.size(); i++) {
+            int start = timeline.getStart(i);
+            rows.add(rows.rowOfTableRow(timeline.getRow(i)), start, start + timeline.getDuration(i));
+        }
+        return rows;
+    }
+
+    // Rows of a list of executions, one row per PID
+    public static GanttRows of(List<ProcessExecution> schedule) {
+        GanttRows rows = new GanttRows(null);
+        for (ProcessExecution exec : schedule) {
+            rows.add(rows.rowOf(exec.pid, exec.processName, exec.color, exec.priority), exec.startTime,
+                    exec.startTime + exec.duration);
+        }
+        return rows;
+    }
+
+    // Chart row of a table row, added at the bottom the first time
+    public int rowOfTableRow(int tableRow) {
+        if (tableRow >= rowOfTableRow.length) {
+            int oldLength = rowOfTableRow.length;
+            rowOfTableRow = Arrays.copyOf(rowOfTableRow, Math.max(tableRow + 1, oldLength * 2));
+            Arrays.fill(rowOfTableRow, oldLength, rowOfTableRow.length, -1);
+        }
+        int row = rowOfTableRow[tableRow];
+        if (row == -1) {
+            row = newRow(table.getName(tableRow), table.getColor(tableRow), table.getPid(tableRow),
+                    table.getPriority(tableRow), tableRow);
+            rowOfTableRow[tableRow] = row;
+        }
+        return row;
+    }
+
+    // Chart row of a PID, added at the bottom with the given details the first time
+    public int rowOf(int pid, String name, Color color, int priority) {
+        Integer row = rowOfPid.get(pid);
+        if (row == null) {
+            row = newRow(name, color, pid, priority, -1);
+            rowOfPid.put(pid, row);
+        }
+        return row;
+    }
+
+    // Adds a slice from start to end at the end of a row (it must not start before the row's last slice
+    // ends); a slice that continues the last one is merged into it
+    public void add(int row, int start, int end) {
+        if (end <= start) {
+            return;
+        }
+        int count = sliceCounts[row];
+        if (count > 0 && ends[row][count - 1] == start) {
+            ends[row][count - 1] = end;
+        } else {
+            if (count == starts[row].length) {
+                starts[row] = Arrays.copyOf(starts[row], count * 2);
+                ends[row] = Arrays.copyOf(ends[row], count * 2);
+            }
+            starts[row][count] = start;
+            ends[row][count] = end;
+            sliceCounts[row] = count + 1;
+            sliceCount++;
+        }
+        endTime = Math.max(endTime, end);
+        for (int k = 1; k < levels.length; k++) {
+            if (levels[k] != null) {
+                levels[k].addSlice(row, start, end);
+            }
+        }
+    }
+
+    // Aggregates of level k >= 1 (buckets of 2^k time units), built from the nearest level below it that is
+    // already built (or from the slices) if needed
+    public Level getLevel(int k) {
+        if (k >= levels.length) {
+            levels = Arrays.copyOf(levels, k + 1);
+        }
+        if (levels[k] == null) {
+            Level level = new Level(k, rowCount);
+            int below = k - 1;
+            while (below > 0 && levels[below] == null) {
+                below--;
+            }
+            for (int row = 0; row < rowCount; row++) {
+                if (below == 0) {
+                    for (int slice = 0; slice < sliceCounts[row]; slice++) {
+                        level.addSlice(row, starts[row][slice], ends[row][slice]);
+                    }
+                } else {
+                    level.addLevel(row, levels[below]);
+                }
+            }
+            level.trim();
+            levels[k] = level;
+        }
+        return levels[k];
+    }
+
+    // Number of rows (processes that ran)
+    public int size() {
+        return rowCount;
+    }
+
+    public long getSliceCount() {
+        return sliceCount;
+    }
+
+    public int getEndTime() {
+        return endTime;
+    }
+
+    // Table the rows point into, null if the slices came as executions
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    public String getName(int row) {
+        return names[row];
+    }
+
+    public Color getColor(int row) {
+        return colors[row];
+    }
+
+    public int getPid(int row) {
+        return pids[row];
+    }
+
+    public int getPriority(int row) {
+        return priorities[row];
+    }
+
+    // Table row of a chart row, -1 if there is no table
+    public int getTableRow(int row) {
+        return tableRows[row];
+    }
+
+    public int getSliceCount(int row) {
+        return sliceCounts[row];
+    }
+
+    public int getStart(int row, int slice) {
+        return starts[row][slice];
+    }
+
+    public int getEnd(int row, int slice) {
+        return ends[row][slice];
+    }
+
+    // Index of the first slice of the row that ends after time (getSliceCount(row) if none does)
+    public int firstEndingAfter(int row, long time) {
+        int[] rowEnds = ends[row];
+        int low = 0;
+        int high = sliceCounts[row];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rowEnds[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int newRow(String name, Color color, int pid, int priority, int tableRow) {
+        if (rowCount == names.length) {
+            int capacity = rowCount * 2;
+            names = Arrays.copyOf(names, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            pids = Arrays.copyOf(pids, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            tableRows = Arrays.copyOf(tableRows, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            sliceCounts = Arrays.copyOf(sliceCounts, capacity);
+        }
+        int row = rowCount++;
+        names[row] = name;
+        colors[row] = color;
+        pids[row] = pid;
+        priorities[row] = priority;
+        tableRows[row] = tableRow;
+        starts[row] = new int[INITIAL_SLICES];
+        ends[row] = new int[INITIAL_SLICES];
+        return row;
+    }
+
+    // One level of the pyramid. Per row, the buckets in which the process ran as runs of buckets in time
+    // order: each run covers buckets [from, to) that were all busy for the same time. Runs longer than one
+    // bucket are always fully busy (a long slice), so a row has about as many runs as slices, or columns,
+    // whichever is fewer.
+    public static class Level {
+        private final int shift;       // Buckets of 2^shift time units
+        private final int full;        // Busy time of a fully busy bucket
+        private int[][] from = new int[0][];
+        private int[][] to = new int[0][];
+        private int[][] busy = new int[0][];
+        private int[] runCounts = new int[0];
+
+        Level(int shift, int rows) {
+            this.shift = shift;
+            this.full = 1 << shift;
+            ensureRows(rows);
+        }
+
+        public int getShift() {
+            return shift;
+        }
+
+        // Time units a bucket holds (its busy time when the process ran throughout)
+        public int getBucketTime() {
+            return full;
+        }
+
+        public int getRunCount(int row) {
+            return row < runCounts.length ? runCounts[row] : 0;
+        }
+
+        // First bucket of a run
+        public int getFrom(int row, int run) {
+            return from[row][run];
+        }
+
+        // Bucket after the last one of a run
+        public int getTo(int row, int run) {
+            return to[row][run];
+        }
+
+        // Time the process ran in each bucket of a run
+        public int getBusy(int row, int run) {
+            return busy[row][run];
+        }
+
+        // Index of the first run of the row ending after bucket (getRunCount(row) if none does)
+        public int firstEndingAfter(int row, long bucket) {
+            if (getRunCount(row) == 0) {
+                return 0;
+            }
+            int[] rowTo = to[row];
+            int low = 0;
+            int high = getRunCount(row);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (rowTo[middle] <= bucket) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // Adds a slice from start to end after everything the row has so far
+        void addSlice(int row, int start, int end) {
+            int first = start >> shift;
+            int last = (end - 1) >> shift;
+            if (first == last) {
+                addBusy(row, first, end - start);
+                return;
+            }
+            addBusy(row, first, ((first + 1) << shift) - start);
+            if (last > first + 1) {
+                addFull(row, first + 1, last);
+            }
+            addBusy(row, last, end - (last << shift));
+        }
+
+        // Adds a row of a level below: a full run there is a slice here, a partial bucket adds its time
+        // to the bucket holding it
+        void addLevel(int row, Level below) {
+            int runs = below.getRunCount(row);
+            int levels = shift - below.shift;
+            for (int run = 0; run < runs; run++) {
+                int bucketBusy = below.busy[row][run];
+                if (bucketBusy == below.full) {
+                    addSlice(row, below.from[row][run] << below.shift, below.to[row][run] << below.shift);
+                } else {
+                    addBusy(row, below.from[row][run] >> levels, bucketBusy);
+                }
+            }
+        }
+
+        // Drops the spare capacity of every row once the level is built
+        void trim() {
+            for (int row = 0; row < runCounts.length; row++) {
+                if (from[row] != null && from[row].length > runCounts[row]) {
+                    from[row] = Arrays.copyOf(from[row], Math.max(1, runCounts[row]));
+                    to[row] = Arrays.copyOf(to[row], Math.max(1, runCounts[row]));
+                    busy[row] = Arrays.copyOf(busy[row], Math.max(1, runCounts[row]));
+                }
+            }
+        }
+
+        // Adds time to one bucket, at or after the row's last one
+        private void addBusy(int row, int bucket, int time) {
+            ensureRows(row + 1);
+            int count = runCounts[row];
+            if (count > 0 && to[row][count - 1] == bucket + 1) {
+                // The bucket is the last one so far: it was partly busy (a full one cannot get more time)
+                int total = busy[row][count - 1] + time;
+                busy[row][count - 1] = total;
+                if (total == full && count > 1 && busy[row][count - 2] == full && to[row][count - 2] == bucket) {
+                    to[row][count - 2] = bucket + 1;  // Now full, it joins the full run before it
+                    runCounts[row] = count - 1;
+                }
+            } else if (time == full) {
+                addFull(row, bucket, bucket + 1);
+            } else {
+                addRun(row, bucket, bucket + 1, time);
+            }
+        }
+
+        // Adds fully busy buckets [first, end), joined to the last run if that is full and adjacent
+        private void addFull(int row, int first, int end) {
+            ensureRows(row + 1);
+            int count = runCounts[row];
+            if (count > 0 && busy[row][count - 1] == full && to[row][count - 1] == first) {
+                to[row][count - 1] = end;
+            } else {
+                addRun(row, first, end, full);
+            }
+        }
+
+        private void addRun(int row, int first, int end, int time) {
+            int count = runCounts[row];
+            if (from[row] == null) {
+                from[row] = new int[INITIAL_SLICES];
+                to[row] = new int[INITIAL_SLICES];
+                busy[row] = new int[INITIAL_SLICES];
+            } else if (count == from[row].length) {
+                from[row] = Arrays.copyOf(from[row], count * 2);
+                to[row] = Arrays.copyOf(to[row], count * 2);
+                busy[row] = Arrays.copyOf(busy[row], count * 2);
+            }
+            from[row][count] = first;
+            to[row][count] = end;
+            busy[row][count] = time;
+            runCounts[row] = count + 1;
+        }
+
+        private void ensureRows(int rows) {
+            if (runCounts.length < rows) {
+                int capacity = Math.max(rows, runCounts.length * 2);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                busy = Arrays.copyOf(busy, capacity);
+                runCounts = Arrays.copyOf(runCounts, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+import algorithms.SchedulingListener;
+import models.ProcessTable;
+import models.Timeline;
+import models.Workload;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Listener that streams the runs of a simulation to a live Gantt chart (GanttChart.createAndShowLive) while
+// the simulation is still going. Runs are copied as primitives into a bounded lock-free ring buffer that the
+// Swing thread drains a frame at a time, like AsyncLogListener's log but with the roles of who may wait
+// reversed: the simulation never waits for the screen.
+//
+// When the ring is full, runs are coalesced instead of queued: each process gets at most one span covering
+// its runs since the ring filled up, and the spans move into the ring as soon as there is room. Memory is the
+// ring plus two ints per process however fast the simulation goes, and the chart is never more than a frame
+// behind. A span is drawn as one bar, so it may cover gaps between the runs it stands for; the timeline given
+// on close replaces the coalesced chart with the exact one.
+//
+// Runs must come from one scheduling thread at a time, and the feed is drained by one thread (the Swing
+// event thread). Close the feed when the simulation ends, also when it fails.
+public class LiveGanttFeed implements SchedulingListener {
+    public static final int DEFAULT_CAPACITY = 1 << 16; // Runs in flight; about a frame's worth when busy
+    private static final int SLOT_SIZE = 2;             // longs per run: pid and duration, start
+    private static final int NONE = -1;
+
+    private final Workload workload;
+    private final long[] pidRows;                   // pid << 32 | row of every process, sorted, for lookups
+    private final long[] slots;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(); // Runs written to the ring
+    private final AtomicLong consumed = new AtomicLong();  // Runs taken out by the drainer
+
+    // Handed over on close (written before closed is set)
+    private long[] leftover;                        // Spans still waiting when the simulation ended
+    private Timeline timeline;                      // Exact runs of the simulation, or null
+    private ProcessTable results;                   // Table with the results of the run, or null
+    private double averageWaitingTime;
+    private double averageTurnaroundTime;
+    private boolean coalesced;                      // Some runs were coalesced into spans
+    private volatile boolean closed;
+
+    // Producer side, only touched by the scheduling thread
+    private long next;                              // Sequence number of the next run in the ring
+    private long consumedSeen;                      // Last value read from consumed
+    private final int[] spanStart;                  // By workload row: start of its span, NONE if it has none
+    private final int[] spanEnd;
+    private final int[] spanRows;                   // Rows with a span, in the order they got it
+    private int spanRowsStart;                      // First row of spanRows whose span is still waiting
+    private int spanRowsEnd;
+
+    // Consumer side, only touched by the drainer
+    private long read;                              // Runs taken out of the ring
+    private boolean leftoverDrained;
+
+    // Receives the runs taken out of the feed
+    public interface RunSink {
+        // Process at workload row ran from start to end
+        void add(int row, int start, int end);
+    }
+
+    // Feed for a simulation of the workload with room for capacity runs in the ring (rounded up to a
+    // power of two)
+    public LiveGanttFeed(Workload workload, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.workload = workload;
+        this.slots = new long[size * SLOT_SIZE];
+        this.mask = size - 1;
+        this.pidRows = new long[workload.size()];
+        for (int row = 0; row < workload.size(); row++) {
+            pidRows[row] = (long) workload.getPid(row) << 32 | row;
+        }
+        Arrays.sort(pidRows);
+        this.spanStart = new int[workload.size()];
+        this.spanEnd = new int[workload.size()];
+        this.spanRows = new int[workload.size()];
+        Arrays.fill(spanStart, NONE);
+    }
+
+    public LiveGanttFeed(Workload workload) {
+        this(workload, DEFAULT_CAPACITY);
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    @Override
+    public void onSliceEnd(int pid, long start, long duration) {
+        if (closed) {
+            throw new IllegalStateException("The feed is closed");
+        }
+        if (spanRowsStart == spanRowsEnd && offer((long) pid << 32 | (duration & 0xffffffffL), start)) {
+            return;
+        }
+        // The ring is full or spans are still waiting: coalesce behind them, then move what fits
+        int row = rowOf(pid);
+        if (row < 0) {
+            return;
+        }
+        coalesced = true;
+        int end = (int) (start + duration);
+        if (spanStart[row] == NONE) {
+            if (spanRowsEnd == spanRows.length) {
+                // Every row is listed at most once, so moving the waiting ones to the front makes room
+                System.arraycopy(spanRows, spanRowsStart, spanRows, 0, spanRowsEnd - spanRowsStart);
+                spanRowsEnd -= spanRowsStart;
+                spanRowsStart = 0;
+            }
+            spanRows[spanRowsEnd++] = row;
+            spanStart[row] = (int) start;
+        }
+        spanEnd[row] = end;
+        flushSpans();
+    }
+
+    // Ends the feed: spans still waiting are handed to the drainer, with the exact timeline of the run for a
+    // chart that had runs coalesced and the results of the run (table, averages) for the legend and
+    // statistics. timeline and results may be null, e.g. when the simulation failed.
+    public void close(Timeline timeline, ProcessTable results, double averageWaitingTime,
+                      double averageTurnaroundTime) {
+        if (closed) {
+            return;
+        }
+        flushSpans();
+        leftover = new long[(spanRowsEnd - spanRowsStart) * SLOT_SIZE];
+        for (int i = spanRowsStart, slot = 0; i < spanRowsEnd; i++, slot += SLOT_SIZE) {
+            int row = spanRows[i];
+            leftover[slot] = (long) workload.getPid(row) << 32 | (spanEnd[row] - spanStart[row]);
+            leftover[slot + 1] = spanStart[row];
+            spanStart[row] = NONE;
+        }
+        spanRowsStart = 0;
+        spanRowsEnd = 0;
+        this.timeline = timeline;
+        this.results = results;
+        this.averageWaitingTime = averageWaitingTime;
+        this.averageTurnaroundTime = averageTurnaroundTime;
+        closed = true; // Publishes everything above to the drainer
+    }
+
+    // Takes every run published so far out of the feed, oldest first, and returns how many there were
+    public int drainTo(RunSink sink) {
+        long available = published.get();
+        int count = (int) (available - read);
+        for (long sequence = read; sequence < available; sequence++) {
+            int slot = (int) (sequence & mask) * SLOT_SIZE;
+            deliver(sink, slots[slot], slots[slot + 1]);
+        }
+        read = available;
+        consumed.lazySet(read); // Frees the slots for the scheduling thread
+
+        // Once closed, the ring holds nothing newer than the leftover spans
+        if (closed && !leftoverDrained && published.get() == read) {
+            for (int i = 0; i < leftover.length; i += SLOT_SIZE) {
+                deliver(sink, leftover[i], leftover[i + 1]);
+            }
+            count += leftover.length / SLOT_SIZE;
+            leftover = null;
+            leftoverDrained = true;
+        }
+        return count;
+    }
+
+    // Whether the feed is closed and every run has been drained
+    public boolean isDone() {
+        return closed && leftoverDrained;
+    }
+
+    // Whether some runs were coalesced into spans (known once closed)
+    public boolean isCoalesced() {
+        return closed && coalesced;
+    }
+
+    // Timeline given on close (null until then, or if none was given)
+    public Timeline getTimeline() {
+        return closed ? timeline : null;
+    }
+
+    // Results given on close (null until then, or if none were given)
+    public ProcessTable getResults() {
+        return closed ? results : null;
+    }
+
+    public double getAverageWaitingTime() {
+        return averageWaitingTime;
+    }
+
+    public double getAverageTurnaroundTime() {
+        return averageTurnaroundTime;
+    }
+
+    // Puts a run in the ring if there is room, without waiting
+    private boolean offer(long first, long start) {
+        long sequence = next;
+        if (sequence - consumedSeen > mask) {
+            consumedSeen = consumed.get();
+            if (sequence - consumedSeen > mask) {
+                return false;
+            }
+        }
+        int slot = (int) (sequence & mask) * SLOT_SIZE;
+        slots[slot] = first;
+        slots[slot + 1] = start;
+        next = sequence + 1;
+        published.lazySet(next); // Makes the slot visible to the drainer
+        return true;
+    }
+
+    // Moves waiting spans into the ring, oldest first, while there is room
+    private void flushSpans() {
+        while (spanRowsStart < spanRowsEnd) {
+            int row = spanRows[spanRowsStart];
+            if (!offer((long) workload.getPid(row) << 32 | (spanEnd[row] - spanStart[row]), spanStart[row])) {
+                return;
+            }
+            spanStart[row] = NONE;
+            spanRowsStart++;
+        }
+        spanRowsStart = 0;
+        spanRowsEnd = 0;
+    }
+
+    private void deliver(RunSink sink, long first, long start) {
+        int pid = (int) (first >> 32);
+        int duration = (int) first;
+        int row = rowOf(pid);
+        if (row >= 0) {
+            sink.add(row, (int) start, (int) (start + duration));
+        }
+    }
+
+    // Workload row of a PID, -1 if no process has it
+    private int rowOf(int pid) {
+        int low = 0;
+        int high = pidRows.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middlePid = (int) (pidRows[middle] >> 32);
+            if (middlePid < pid) {
+                low = middle + 1;
+            } else if (middlePid > pid) {
+                high = middle - 1;
+            } else {
+                return (int) pidRows[middle];
+            }
+        }
+        return -1;
+    }
+}
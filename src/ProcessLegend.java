@@ -0,0 +1,285 @@
+import models.ProcessTable;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.Arrays;
+
+// Legend of a Gantt chart: every process with its color, name, PID, priority, waiting and turnaround time,
+// searchable by name or PID and sortable by PID, priority, waiting or turnaround time.
+//
+// The list is virtual: the JList asks the model only for the entries on screen and one renderer component
+// draws every cell, with fixed cell sizes so the list never measures all of them. The entries come straight
+// from the process table (or from the chart rows when the schedule came without one), so a legend of 100k
+// processes costs a few int arrays rather than a panel and two labels per process.
+public class ProcessLegend extends JPanel {
+    private static final int CELL_WIDTH = 560;
+    private static final int CELL_HEIGHT = 30;
+
+    // Orders the legend can be sorted in
+    public enum SortKey {
+        PID("PID"),
+        PRIORITY("Priority"),
+        WAITING_TIME("Waiting time"),
+        TURNAROUND_TIME("Turnaround time");
+
+        private final String label;
+
+        SortKey(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final LegendModel model;
+    private final JList<Integer> list;
+
+    public ProcessLegend(GanttRows rows) {
+        this(rows, rows.getTable());
+    }
+
+    // Legend listing the processes and times of a results table, such as that of a finished live run; without
+    // one it falls back to the chart's own table
+    public ProcessLegend(GanttRows rows, ProcessTable results) {
+        super(new BorderLayout());
+        model = new LegendModel(rows, results != null ? results : rows.getTable());
+        setBackground(Color.DARK_GRAY);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 0, 20));
+
+        // Title, then the search field and sort order
+        JLabel titleLabel = new JLabel("Processes Information");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        titleLabel.setForeground(Color.RED);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        JTextField search = new JTextField();
+        search.setToolTipText("Search by name or PID");
+        search.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                model.filter(search.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                model.filter(search.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                model.filter(search.getText());
+            }
+        });
+        JComboBox<SortKey> sort = new JComboBox<>(SortKey.values());
+        sort.addActionListener(e -> model.sort((SortKey) sort.getSelectedItem()));
+
+        JPanel controls = new JPanel(new BorderLayout(10, 5));
+        controls.setBackground(Color.DARK_GRAY);
+        controls.add(titleLabel, BorderLayout.NORTH);
+        controls.add(createLabel("Search:"), BorderLayout.WEST);
+        controls.add(search, BorderLayout.CENTER);
+        controls.add(sort, BorderLayout.EAST);
+        add(controls, BorderLayout.NORTH);
+
+        // The list itself
+        list = new JList<>(model);
+        list.setBackground(Color.DARK_GRAY);
+        list.setFixedCellWidth(CELL_WIDTH);
+        list.setFixedCellHeight(CELL_HEIGHT);
+        list.setCellRenderer(new EntryRenderer(model));
+        add(new JScrollPane(list), BorderLayout.CENTER);
+    }
+
+    // Number of entries shown (matching the search)
+    public int getShownCount() {
+        return model.getSize();
+    }
+
+    public void setSortKey(SortKey key) {
+        model.sort(key);
+    }
+
+    public void setSearch(String query) {
+        model.filter(query);
+    }
+
+    private static JLabel createLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(GanttRenderer.LABEL_FONT);
+        label.setForeground(Color.WHITE);
+        return label;
+    }
+
+    // Entries of the legend: indexes into the process table (or the chart rows without a table), sorted by
+    // the current key and filtered by the current search. Elements are those indexes.
+    private static class LegendModel extends AbstractListModel<Integer> {
+        private final GanttRows rows;
+        private final ProcessTable table;  // Null if the chart has no table: entries are chart rows then
+        private final int count;
+        private int[] order;               // Every entry, in the current order
+        private final int[] shown;         // Entries matching the search, in the current order
+        private int shownCount;
+        private String query = "";
+
+        LegendModel(GanttRows rows, ProcessTable table) {
+            this.rows = rows;
+            this.table = table;
+            this.count = table != null ? table.size() : rows.size();
+            this.order = new int[count];
+            this.shown = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            sort(SortKey.PID);
+        }
+
+        @Override
+        public int getSize() {
+            return shownCount;
+        }
+
+        @Override
+        public Integer getElementAt(int index) {
+            return shown[index];
+        }
+
+        // Sorts every entry by a key (ties in table order), keeping the search
+        void sort(SortKey key) {
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = ((long) sortValue(i, key) << 32) | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) keys[i];
+            }
+            filter(query);
+        }
+
+        // Shows the entries whose name contains the query (ignoring case) or whose PID starts with it
+        void filter(String newQuery) {
+            query = newQuery.trim();
+            int oldCount = shownCount;
+            shownCount = 0;
+            for (int i = 0; i < count; i++) {
+                int entry = order[i];
+                if (query.isEmpty() || matches(entry)) {
+                    shown[shownCount++] = entry;
+                }
+            }
+            if (oldCount > shownCount) {
+                fireIntervalRemoved(this, shownCount, oldCount - 1);
+            } else if (oldCount < shownCount) {
+                fireIntervalAdded(this, oldCount, shownCount - 1);
+            }
+            if (Math.min(oldCount, shownCount) > 0) {
+                fireContentsChanged(this, 0, Math.min(oldCount, shownCount) - 1);
+            }
+        }
+
+        private boolean matches(int entry) {
+            String name = name(entry);
+            for (int from = 0; from + query.length() <= name.length(); from++) {
+                if (name.regionMatches(true, from, query, 0, query.length())) {
+                    return true;
+                }
+            }
+            return Integer.toString(pid(entry)).startsWith(query);
+        }
+
+        private int sortValue(int entry, SortKey key) {
+            switch (key) {
+                case PRIORITY:
+                    return priority(entry);
+                case WAITING_TIME:
+                    return hasTimes() ? table.getWaitingTime(entry) : pid(entry);
+                case TURNAROUND_TIME:
+                    return hasTimes() ? table.getTurnaroundTime(entry) : pid(entry);
+                default:
+                    return pid(entry);
+            }
+        }
+
+        // Waiting and turnaround times are known only with a table; without one they sort as PID
+        boolean hasTimes() {
+            return table != null;
+        }
+
+        String name(int entry) {
+            return table != null ? table.getName(entry) : rows.getName(entry);
+        }
+
+        int pid(int entry) {
+            return table != null ? table.getPid(entry) : rows.getPid(entry);
+        }
+
+        int priority(int entry) {
+            return table != null ? table.getPriority(entry) : rows.getPriority(entry);
+        }
+
+        Color color(int entry) {
+            return table != null ? table.getColor(entry) : rows.getColor(entry);
+        }
+
+        int waitingTime(int entry) {
+            return table.getWaitingTime(entry);
+        }
+
+        int turnaroundTime(int entry) {
+            return table.getTurnaroundTime(entry);
+        }
+    }
+
+    // Draws every cell with one label: a color box icon and the process details
+    private static class EntryRenderer extends JLabel implements ListCellRenderer<Integer>, Icon {
+        private final LegendModel model;
+        private Color color;  // Color box of the cell being drawn
+
+        EntryRenderer(LegendModel model) {
+            this.model = model;
+            setOpaque(true);
+            setFont(GanttRenderer.LABEL_FONT);
+            setIcon(this);
+            setIconTextGap(10);
+            setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Integer> list, Integer entry, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            color = model.color(entry);
+            if (model.hasTimes()) {
+                setText(String.format("Name: %s | PID: %s | Priority: %s | Waiting: %s | Turnaround: %s",
+                        model.name(entry), model.pid(entry), model.priority(entry), model.waitingTime(entry),
+                        model.turnaroundTime(entry)));
+            } else {
+                setText(String.format("Name: %s | PID: %s | Priority: %s",
+                        model.name(entry), model.pid(entry), model.priority(entry)));
+            }
+            setBackground(isSelected ? Color.GRAY : Color.DARK_GRAY);
+            setForeground(Color.WHITE);
+            return this;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            g.setColor(color);
+            g.fillRect(x, y, 20, 20);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return 20;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return 20;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package algorithms;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Listener that logs every event as a line of text without slowing the scheduler down: events are copied as
+// primitives into a ring buffer, and a background thread formats them and writes them out in batches.
+// When the buffer is full the scheduler waits for the writer to catch up, so no event is lost.
+// Events must come from one scheduling thread at a time. Close the listener to write out what is left.
+//
+// Lines look like:
+//     12: P3 starts
+//     15: P3 preempted
+//     15: P3 quantum 4 -> 5
+//     20: P4 starved
+//     23: P4 completed
+public class AsyncLogListener implements SchedulingListener, AutoCloseable {
+    private static final int SLICE_START = 0;
+    private static final int PREEMPTED = 1;
+    private static final int COMPLETED = 2;
+    private static final int STARVED = 3;
+    private static final int QUANTUM_CHANGED = 4;
+    private static final int SLOT_SIZE = 3;          // longs per event: type and pid, time, quanta
+    private static final int MAX_BATCH = 4096;       // Events formatted per write
+
+    private final Writer out;
+    private final long[] slots;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(); // Events written to the buffer
+    private final AtomicLong consumed = new AtomicLong();  // Events taken out by the writer thread
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;            // First write error; later events are dropped
+
+    // Producer side, only touched by the scheduling thread
+    private long next;                               // Sequence number of the next event
+    private long consumedSeen;                       // Last value read from consumed
+
+    // Logs to standard output, which is flushed but left open on close
+    public AsyncLogListener() {
+        this(new OutputStreamWriter(System.out), 1 << 16);
+    }
+
+    // Logs to out with room for capacity events in flight (rounded up to a power of two); out is flushed
+    // after every batch and on close, but not closed
+    public AsyncLogListener(Writer out, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.out = out;
+        this.slots = new long[size * SLOT_SIZE];
+        this.mask = size - 1;
+        this.writer = new Thread(this::drain, "scheduling-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void onSliceStart(int pid, long time) {
+        publish(SLICE_START, pid, time, 0, 0);
+    }
+
+    @Override
+    public void onPreempted(int pid, long time) {
+        publish(PREEMPTED, pid, time, 0, 0);
+    }
+
+    @Override
+    public void onCompleted(int pid, long time) {
+        publish(COMPLETED, pid, time, 0, 0);
+    }
+
+    @Override
+    public void onStarved(int pid, long time) {
+        publish(STARVED, pid, time, 0, 0);
+    }
+
+    @Override
+    public void onQuantumChanged(int pid, int oldQuantum, int newQuantum, long time) {
+        publish(QUANTUM_CHANGED, pid, time, oldQuantum, newQuantum);
+    }
+
+    // Writes out every event logged so far and stops the writer thread
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void publish(int type, int pid, long time, int a, int b) {
+        if (closed) {
+            throw new IllegalStateException("The log is closed");
+        }
+        long sequence = next;
+        while (sequence - consumedSeen > mask) {
+            consumedSeen = consumed.get();
+            if (sequence - consumedSeen > mask) {
+                if (failure != null) {
+                    return; // The writer stopped; drop the event rather than wait forever
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, 10_000);
+            }
+        }
+        int slot = (int) (sequence & mask) * SLOT_SIZE;
+        slots[slot] = (long) type << 32 | (pid & 0xffffffffL);
+        slots[slot + 1] = time;
+        slots[slot + 2] = (long) a << 32 | (b & 0xffffffffL);
+        next = sequence + 1;
+        published.lazySet(next); // Makes the slot visible to the writer
+    }
+
+    // Writer thread: formats whatever has been published, a batch at a time, until closed and empty
+    private void drain() {
+        StringBuilder text = new StringBuilder(MAX_BATCH * 24);
+        long read = 0;
+        while (true) {
+            long available = published.get();
+            if (available == read) {
+                if (closed && published.get() == read) {
+                    break;
+                }
+                LockSupport.parkNanos(this, 1_000_000);
+                continue;
+            }
+            long end = Math.min(available, read + MAX_BATCH);
+            for (long sequence = read; sequence < end; sequence++) {
+                format(text, (int) (sequence & mask) * SLOT_SIZE);
+            }
+            read = end;
+            consumed.lazySet(read);
+            if (failure == null) {
+                try {
+                    out.write(text.toString());
+                    out.flush();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            text.setLength(0);
+        }
+    }
+
+    private void format(StringBuilder text, int slot) {
+        int type = (int) (slots[slot] >>> 32);
+        int pid = (int) slots[slot];
+        text.append(slots[slot + 1]).append(": P").append(pid);
+        switch (type) {
+            case SLICE_START:
+                text.append(" starts");
+                break;
+            case PREEMPTED:
+                text.append(" preempted");
+                break;
+            case COMPLETED:
+                text.append(" completed");
+                break;
+            case STARVED:
+                text.append(" starved");
+                break;
+            case QUANTUM_CHANGED:
+                text.append(" quantum ").append((int) (slots[slot + 2] >>> 32))
+                        .append(" -> ").append((int) slots[slot + 2]);
+                break;
+            default:
+                throw new IllegalStateException("Unknown event type " + type);
+        }
+        text.append('\n');
+    }
+}
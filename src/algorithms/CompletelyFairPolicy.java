@@ -0,0 +1,188 @@
+package algorithms;
+
+import models.ProcessTable;
+
+import java.util.Arrays;
+
+// Ready queue for a fair-share scheduler in the style of Linux CFS. Every process has a virtual runtime:
+// the time it ran, scaled by NICE_0_WEIGHT / its weight, so a process with a heavier weight is charged less
+// for the same time. The process with the smallest virtual runtime runs next. A process's priority is its
+// nice value (clamped to -20 .. 19, lower runs more) and gives its weight from the Linux weight table.
+//
+// Slices: the runnable processes share a period of targetLatency (or minGranularity per process when there
+// are too many to give each that much) in proportion to their weights, and a slice is never shorter than
+// minGranularity. When a slice ends the process keeps the CPU if nobody is waiting, otherwise it goes back to
+// the queue with its new virtual runtime. An arriving process preempts the running one when the running one
+// is ahead of it by more than minGranularity of virtual time. A new process starts at the smallest virtual
+// runtime seen so far, so it neither starves the others nor waits for everyone else to catch up.
+public class CompletelyFairPolicy implements ReadyQueuePolicy {
+    public static final long DEFAULT_TARGET_LATENCY = 24;
+    public static final long DEFAULT_MIN_GRANULARITY = 3;
+
+    private static final int NICE_0_WEIGHT = 1024;
+    private static final int VRUNTIME_SHIFT = 10; // Virtual runtimes are kept in 1/1024 time units
+    // Weight of nice -20 .. 19, as in the Linux kernel (each step is about 10% of CPU time)
+    private static final int[] WEIGHTS = {
+            88761, 71755, 56483, 46273, 36291,
+            29154, 23254, 18705, 14949, 11916,
+            9548, 7620, 6100, 4904, 3906,
+            3121, 2501, 1991, 1586, 1277,
+            1024, 820, 655, 526, 423,
+            335, 272, 215, 172, 137,
+            110, 87, 70, 56, 45,
+            36, 29, 23, 18, 15,
+    };
+
+    private final long targetLatency;
+    private final long minGranularity;
+    private ProcessTable table;
+    private IndexedMinHeap ready;             // Waiting processes by virtual runtime
+    private long[] vruntime = new long[0];    // By row, in 1/1024 time units
+    private long[] charged = new long[0];     // By row: time since its selection already added to vruntime
+    private int[] remainingAtSelect = new int[0]; // By row: remaining time when it was last selected
+    private boolean[] runnable = new boolean[0]; // By row: waiting or running
+    private long minVruntime;                 // Smallest virtual runtime selected so far (never goes down)
+    private long totalWeight;                 // Weight of every runnable process
+    private int runnableCount;
+
+    public CompletelyFairPolicy(long targetLatency, long minGranularity) {
+        if (minGranularity < 1 || targetLatency < minGranularity) {
+            throw new IllegalArgumentException("Need 1 <= minimum granularity <= target latency: "
+                    + minGranularity + ", " + targetLatency);
+        }
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+    }
+
+    public CompletelyFairPolicy() {
+        this(DEFAULT_TARGET_LATENCY, DEFAULT_MIN_GRANULARITY);
+    }
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        ensureRows(processTable.size());
+        Arrays.fill(runnable, false);
+        minVruntime = 0;
+        totalWeight = 0;
+        runnableCount = 0;
+        if (ready == null) {
+            ready = new IndexedMinHeap(processTable.size(), (a, b) -> {
+                int compare = Long.compare(vruntime[a], vruntime[b]);
+                if (compare == 0) compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+                if (compare == 0) compare = Integer.compare(table.getPid(a), table.getPid(b));
+                return compare != 0 ? compare : Integer.compare(a, b);
+            });
+        } else {
+            ready.clear();
+            ready.ensureCapacity(processTable.size());
+        }
+    }
+
+    // A new process starts at the smallest virtual runtime; one coming back keeps its own
+    @Override
+    public void add(int row, long now) {
+        ensureRows(row + 1);
+        if (!runnable[row]) {
+            runnable[row] = true;
+            vruntime[row] = minVruntime;
+            totalWeight += weight(row);
+            runnableCount++;
+        }
+        ready.add(row);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ready.isEmpty();
+    }
+
+    @Override
+    public int peek(long now) {
+        return ready.peek();
+    }
+
+    @Override
+    public int select(long now) {
+        int row = ready.poll();
+        charged[row] = 0;
+        remainingAtSelect[row] = table.getRemainingTime(row);
+        minVruntime = Math.max(minVruntime, vruntime[row]);
+        return row;
+    }
+
+    // Its share of the period, by weight
+    @Override
+    public long timeSlice(int row, long now) {
+        long period = Math.max(targetLatency, runnableCount * minGranularity);
+        return Math.max(minGranularity, period * weight(row) / totalWeight);
+    }
+
+    @Override
+    public boolean continueAfterSlice(int row, long ran, long now) {
+        charge(row, ran);
+        return ready.isEmpty();
+    }
+
+    // The running process's remaining time is up to date, which tells how long it ran since its selection
+    @Override
+    public boolean preempts(int arrived, int running, long now) {
+        long ran = remainingAtSelect[running] - table.getRemainingTime(running);
+        long runningVruntime = vruntime[running] + scaled(ran - charged[running], running);
+        return runningVruntime - vruntime[arrived] > scaled(minGranularity, arrived);
+    }
+
+    @Override
+    public void onPreempted(int row, long ran, long now) {
+        charge(row, ran);
+    }
+
+    @Override
+    public void onCompleted(int row, long now) {
+        runnable[row] = false;
+        totalWeight -= weight(row);
+        runnableCount--;
+    }
+
+    // Its virtual runtime moves over relative to each queue's smallest one, as Linux does between CPUs, so it
+    // is neither ahead of nor behind the processes already there
+    @Override
+    public void migrate(int row, ReadyQueuePolicy to, long now) {
+        CompletelyFairPolicy other = (CompletelyFairPolicy) to;
+        other.ensureRows(row + 1);
+        onCompleted(row, now);
+        other.runnable[row] = true;
+        other.totalWeight += other.weight(row);
+        other.runnableCount++;
+        other.vruntime[row] = vruntime[row] - minVruntime + other.minVruntime;
+        other.charged[row] = 0;
+        other.remainingAtSelect[row] = remainingAtSelect[row];
+        other.minVruntime = Math.max(other.minVruntime, other.vruntime[row]);
+    }
+
+    // Adds the time run since the last charge to the process's virtual runtime
+    private void charge(int row, long ran) {
+        vruntime[row] += scaled(ran - charged[row], row);
+        charged[row] = ran;
+    }
+
+    // Virtual time for running time units at the process's weight
+    private long scaled(long time, int row) {
+        return (time << VRUNTIME_SHIFT) * NICE_0_WEIGHT / weight(row);
+    }
+
+    private int weight(int row) {
+        int nice = Math.max(-20, Math.min(19, table.getPriority(row)));
+        return WEIGHTS[nice + 20];
+    }
+
+    private void ensureRows(int rows) {
+        if (vruntime.length < rows) {
+            int capacity = Math.max(rows, vruntime.length * 2);
+            vruntime = Arrays.copyOf(vruntime, capacity);
+            charged = Arrays.copyOf(charged, capacity);
+            remainingAtSelect = Arrays.copyOf(remainingAtSelect, capacity);
+            runnable = Arrays.copyOf(runnable, capacity);
+        }
+    }
+}
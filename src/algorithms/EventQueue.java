@@ -0,0 +1,135 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// Priority queue of simulation events, ordered by time and, for events at the same time, by type.
+// Events are stored in parallel primitive arrays (time, type, row, stamp) laid out as a binary heap,
+// so pushing and popping does not allocate.
+public class EventQueue {
+    // Event types, in the order events at the same time are handled: arrivals first, so a decision made at
+    // time t always sees every process that arrived at t
+    public static final int ARRIVAL = 0;               // Processes arrive in the ready queue
+    public static final int COMPLETION = 1;            // The running process finishes
+    public static final int QUANTUM_EXPIRY = 2;        // The running process used up its time slice
+    public static final int CONTEXT_SWITCH_DONE = 3;   // The CPU is ready to run the next process
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] time = new long[INITIAL_CAPACITY];  // Time of each event
+    private int[] type = new int[INITIAL_CAPACITY];    // One of the types above
+    private int[] row = new int[INITIAL_CAPACITY];     // Process the event is about (-1 if none)
+    private long[] stamp = new long[INITIAL_CAPACITY]; // Lets the kernel recognize events that no longer apply
+    private int size;
+
+    // Popped event, valid until the next pop
+    private long polledTime;
+    private int polledType;
+    private int polledRow;
+    private long polledStamp;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Removes every event
+    public void clear() {
+        size = 0;
+    }
+
+    // Time of the next event (the queue must not be empty)
+    public long peekTime() {
+        return time[0];
+    }
+
+    // Adds an event
+    public void push(long eventTime, int eventType, int eventRow, long eventStamp) {
+        if (size == time.length) {
+            int capacity = size * 2;
+            time = Arrays.copyOf(time, capacity);
+            type = Arrays.copyOf(type, capacity);
+            row = Arrays.copyOf(row, capacity);
+            stamp = Arrays.copyOf(stamp, capacity);
+        }
+        int i = size++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(eventTime, eventType, time[parent], type[parent])) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, eventTime, eventType, eventRow, eventStamp);
+    }
+
+    // Removes the next event; its fields are then available through getTime(), getType(), getRow() and getStamp()
+    public void pop() {
+        polledTime = time[0];
+        polledType = type[0];
+        polledRow = row[0];
+        polledStamp = stamp[0];
+        int last = --size;
+        if (last == 0) {
+            return;
+        }
+        long lastTime = time[last];
+        int lastType = type[last];
+        int lastRow = row[last];
+        long lastStamp = stamp[last];
+        // Sift the last event down from the root
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < last && before(time[right], type[right], time[child], type[child])) {
+                child = right;
+            }
+            if (!before(time[child], type[child], lastTime, lastType)) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        set(i, lastTime, lastType, lastRow, lastStamp);
+    }
+
+    public long getTime() {
+        return polledTime;
+    }
+
+    public int getType() {
+        return polledType;
+    }
+
+    public int getRow() {
+        return polledRow;
+    }
+
+    public long getStamp() {
+        return polledStamp;
+    }
+
+    private static boolean before(long timeA, int typeA, long timeB, int typeB) {
+        return timeA < timeB || (timeA == timeB && typeA < typeB);
+    }
+
+    private void move(int from, int to) {
+        time[to] = time[from];
+        type[to] = type[from];
+        row[to] = row[from];
+        stamp[to] = stamp[from];
+    }
+
+    private void set(int i, long eventTime, int eventType, int eventRow, long eventStamp) {
+        time[i] = eventTime;
+        type[i] = eventType;
+        row[i] = eventRow;
+        stamp[i] = eventStamp;
+    }
+}
@@ -0,0 +1,186 @@
+package algorithms;
+
+import models.Process;
+import models.ProcessTable;
+
+import java.util.Arrays;
+
+// Ready queue for FCAI scheduling. A selected process runs non-preemptively for 40% of its quantum
+// (rounded up), then until its quantum runs out or a process with a lower FCAI factor is ready.
+// Used the whole quantum: quantum + 2 and the next process is taken in FCFS order; preempted: quantum plus
+// the unused part and the next process is the one with the lowest factor.
+public class FCAIPolicy implements ReadyQueuePolicy {
+    private final boolean fixedScaling; // v1 and v2 given up front instead of taken from the workload
+    private ProcessTable table;
+    private double v1;                 // Scaling factor for arrival time (last arrival / 10)
+    private double v2;                 // Scaling factor for remaining burst time (max burst / 10)
+    private long[] queuedAt = new long[0]; // Sequence number of the last enqueue, keeps FCFS order among ties
+    private long sequence;
+    private IndexedMinHeap factorHeap;
+    private IndexedFifoQueue fcfsQueue;
+    private boolean byFactor;          // Next selection by lowest factor instead of FCFS
+    private SchedulingListener listener; // Told about quantum changes (null for none)
+
+    // By row, for running processes: past the non-preemptive part of the quantum. The rest of a running
+    // process's state is in the table, which does not change while it runs (quantum and factor).
+    private boolean[] preemptivePart = new boolean[0];
+
+    // Scaling factors computed from the workload in reset, like FCAIScheduler does
+    public FCAIPolicy() {
+        this.fixedScaling = false;
+    }
+
+    // Fixed scaling factors, for workloads that are not known up front (streaming runs)
+    public FCAIPolicy(double v1, double v2) {
+        this.fixedScaling = true;
+        this.v1 = v1;
+        this.v2 = v2;
+    }
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        int n = processTable.size();
+        if (!fixedScaling) {
+            double lastArriveTime = 0.0;
+            double maxBurstTime = 0.0;
+            for (int row = 0; row < n; row++) {
+                lastArriveTime = Math.max(lastArriveTime, processTable.getArrivalTime(row));
+                maxBurstTime = Math.max(maxBurstTime, processTable.getBurstTime(row));
+            }
+            v1 = lastArriveTime / 10.0;
+            v2 = maxBurstTime / 10.0;
+        }
+        if (queuedAt.length < n) {
+            queuedAt = new long[n];
+            preemptivePart = new boolean[n];
+        }
+        sequence = 0;
+        byFactor = false;
+        if (factorHeap == null) {
+            // Lowest factor first, ties go to the earlier arrival and then to whoever has waited longest
+            factorHeap = new IndexedMinHeap(n, (a, b) -> {
+                int compare = Double.compare(table.getFcaiFactor(a), table.getFcaiFactor(b));
+                if (compare == 0) compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+                if (compare == 0) compare = Long.compare(queuedAt[a], queuedAt[b]);
+                return compare;
+            });
+            fcfsQueue = new IndexedFifoQueue(n);
+        } else {
+            factorHeap.clear();
+            fcfsQueue.clear();
+        }
+    }
+
+    @Override
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return fixedScaling;
+    }
+
+    // Adds a process at the back of the FCFS queue and into the heap, with its factor for the current burst
+    @Override
+    public void add(int row, long now) {
+        if (row >= queuedAt.length) {
+            queuedAt = Arrays.copyOf(queuedAt, Math.max(row + 1, queuedAt.length * 2));
+            preemptivePart = Arrays.copyOf(preemptivePart, queuedAt.length);
+        }
+        table.setFcaiFactor(row, Process.fcaiFactor(table.getPriority(row), table.getArrivalTime(row),
+                table.getRemainingTime(row), v1, v2));
+        queuedAt[row] = sequence++;
+        fcfsQueue.add(row);
+        factorHeap.add(row);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return fcfsQueue.isEmpty();
+    }
+
+    @Override
+    public int peek(long now) {
+        return byFactor ? factorHeap.peek() : fcfsQueue.peek();
+    }
+
+    @Override
+    public int select(long now) {
+        int selected = peek(now);
+        factorHeap.remove(selected);
+        fcfsQueue.remove(selected);
+        preemptivePart[selected] = false;
+        return selected;
+    }
+
+    // First the non-preemptive part, then the rest of the quantum
+    @Override
+    public long timeSlice(int row, long now) {
+        int quantum = table.getUpdatedQuantum(row);
+        int nonPreemptiveTime = nonPreemptiveTime(quantum);
+        return preemptivePart[row] ? quantum - nonPreemptiveTime : nonPreemptiveTime;
+    }
+
+    @Override
+    public boolean continueAfterSlice(int row, long ran, long now) {
+        int quantum = table.getUpdatedQuantum(row);
+        int remainingQuantum = (int) (quantum - ran);
+        if (remainingQuantum <= 0) {
+            setQuantum(row, quantum, quantum + 2, now);
+            byFactor = false;
+            return false;
+        }
+        // End of the non-preemptive part: give way if a process with a lower factor is waiting
+        if (!factorHeap.isEmpty() && table.getFcaiFactor(factorHeap.peek()) < table.getFcaiFactor(row)) {
+            if (listener != null) {
+                listener.onPreempted(table.getPid(row), now);
+            }
+            onPreempted(row, ran, now);
+            return false;
+        }
+        preemptivePart[row] = true;
+        return true;
+    }
+
+    // Its quantum and factor are in the table; it starts in the non-preemptive part like any selection
+    @Override
+    public void migrate(int row, ReadyQueuePolicy to, long now) {
+        FCAIPolicy other = (FCAIPolicy) to;
+        if (row >= other.preemptivePart.length) {
+            other.queuedAt = Arrays.copyOf(other.queuedAt, Math.max(row + 1, other.queuedAt.length * 2));
+            other.preemptivePart = Arrays.copyOf(other.preemptivePart, other.queuedAt.length);
+        }
+        other.preemptivePart[row] = false;
+    }
+
+    @Override
+    public boolean preempts(int arrived, int running, long now) {
+        return preemptivePart[running] && table.getFcaiFactor(arrived) < table.getFcaiFactor(running);
+    }
+
+    @Override
+    public void onPreempted(int row, long ran, long now) {
+        int quantum = table.getUpdatedQuantum(row);
+        setQuantum(row, quantum, quantum + (int) (quantum - ran), now);
+        byFactor = true;
+    }
+
+    @Override
+    public void onCompleted(int row, long now) {
+        byFactor = false;
+    }
+
+    // ceil(40% of the quantum)
+    private static int nonPreemptiveTime(int quantum) {
+        return (int) Math.ceil(quantum * 0.4);
+    }
+
+    private void setQuantum(int row, int oldQuantum, int newQuantum, long now) {
+        table.setUpdatedQuantum(row, newQuantum);
+        if (listener != null) {
+            listener.onQuantumChanged(table.getPid(row), oldQuantum, newQuantum, now);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import models.Process;
 import models.ProcessExecution;
+import models.ProcessTable;
+import models.Timeline;
 
 public class FCAIScheduler {
 
     private List<Process> processList; // List of all processes
-    private List<String> timeline;    // Execution timeline for reporting
+    private SliceLog timeline;        // Execution timeline for reporting
+    private SchedulingListener listener; // Told about every slice, null for none
     private LinkedList<Process> readyQueue; // Ready queue for processes
     private double v1;                // Scaling factor for Arrival Time
     private double v2;                // Scaling factor for Remaining Burst Time
@@ -19,12 +25,17 @@ public class FCAIScheduler {
     // Constructor that initializes the scheduler with a list of processes
     public FCAIScheduler(List<Process> processes) {
         this.processList = new ArrayList<>(processes);
-        this.timeline = new ArrayList<>();
+        this.timeline = new SliceLog();
         this.readyQueue = new LinkedList<>();
         calculateV1();  // Calculate scaling factor for Arrival Time
         calculateV2();  // Calculate scaling factor for Burst Time
     }
 
+    // Listener told about the slices, preemptions, quantum changes and completions of later runs; null removes it
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
     // Updates the ready queue based on the current time
     private void updateReadyQueueState(int currentTime) {
         Iterator<Process> iterator = processList.iterator();
@@ -60,11 +71,11 @@ public class FCAIScheduler {
     }
 
     // The main scheduling method that returns a list of process executions
-    public List<ProcessExecution> schedule(int contextSwitchingTime) {
+    public Timeline schedule(int contextSwitchingTime) {
         int currentTime = 0;
         int choice = 2;  // Decision variable to choose scheduling strategy
         Process currentProcess = null;
-        List<ProcessExecution> executionOrder = new ArrayList<>();
+        Timeline executionOrder = new Timeline(processList);
 
         while (!processList.isEmpty() || !readyQueue.isEmpty()) {
             updateReadyQueueState(currentTime);  // Update the ready queue based on current time
@@ -87,6 +98,9 @@ public class FCAIScheduler {
             } else {
                 currentProcess = readyQueue.poll();  // Get process in FCFS order
             }
+            if (listener != null) {
+                listener.onSliceStart(currentProcess.getPid(), start);
+            }
 
             // Get the quantum for the current process and calculate execution time
             int quantum = currentProcess.getUpdatedQuantum();
@@ -111,33 +125,29 @@ public class FCAIScheduler {
             }
 
             // Track the execution order of the process
-            executionOrder.add(new ProcessExecution(
-                    currentProcess.getName(),
-                    currentTime - start,
-                    currentProcess.getColor(),
-                    currentProcess.getPid(),
-                    currentProcess.getPriority(),
-                    start
-            ));
+            executionOrder.append(currentProcess, start, currentTime - start);
 
             // Update process status based on its remaining burst time
             if (currentProcess.getBurstTime() == 0) {
                 currentProcess.setCompletionTime(currentTime);  // Mark the process as completed
-                timeline.add("Process " + currentProcess.getName() + ": from " + start + " to " + currentTime + " --> completed");
+                timeline.add(currentProcess.getPid(), start, currentTime, quantum, SliceLog.COMPLETED);
                 choice = 2;
             } else if (remainingQuantum == 0) {
                 currentProcess.setUpdatedQuantum(quantum + 2);  // Update quantum for the next round
-                timeline.add("Process " + currentProcess.getName() + ": from " + start + " to " + currentTime +
-                        ", Quantum: " + quantum + " --> " + currentProcess.getUpdatedQuantum());
+                timeline.add(currentProcess.getPid(), start, currentTime, quantum, currentProcess.getUpdatedQuantum());
                 readyQueue.add(currentProcess);  // Re-add process to the ready queue
                 choice = 2;
             } else {
                 currentProcess.setUpdatedQuantum(quantum + remainingQuantum);  // Update quantum after execution
-                timeline.add("Process " + currentProcess.getName() + ": from " + start + " to " + currentTime +
-                        ", Quantum: " + quantum + " --> " + currentProcess.getUpdatedQuantum());
+                timeline.add(currentProcess.getPid(), start, currentTime, quantum, currentProcess.getUpdatedQuantum());
                 readyQueue.add(currentProcess);  // Re-add process to the ready queue
                 choice = 1;
             }
+            if (listener != null) {
+                report(listener, currentProcess.getPid(), currentTime, quantum,
+                        currentProcess.getBurstTime() == 0 ? SliceLog.COMPLETED : currentProcess.getUpdatedQuantum(),
+                        remainingQuantum > 0);
+            }
 
             // Account for context switching time
             currentTime += contextSwitchingTime;
@@ -145,6 +155,266 @@ public class FCAIScheduler {
         return executionOrder;  // Return the execution order of processes
     }
 
+    // Same algorithm as schedule(...) with an indexed heap as the ready queue. The FCAI factor of a process is
+    // only recomputed when its remaining burst changes, the FCFS order is kept in its own queue, and the clock
+    // jumps from arrival to arrival while a process runs instead of moving one unit at a time.
+    public Timeline scheduleIndexed(int contextSwitchingTime) {
+        ProcessTable table = ProcessTable.fromProcesses(processList);
+        Timeline executionOrder = runIndexed(table, contextSwitchingTime, v1, v2, timeline, listener);
+
+        // Copy the results back to the Process objects, as schedule(...) leaves them
+        for (int row = 0; row < table.size(); row++) {
+            Process process = processList.get(row);
+            process.setBurstTime(table.getRemainingTime(row));
+            process.setCompletionTime(table.getCompletionTime(row));
+            process.setUpdatedQuantum(table.getUpdatedQuantum(row));
+            process.setFcaiFactor(table.getFcaiFactor(row));
+        }
+        return executionOrder;
+    }
+
+    // Indexed FCAI directly on a process table, using each row's quantum as its starting quantum.
+    // Completion times, quanta and factors are written to the table's run state columns.
+    public static Timeline scheduleIndexed(ProcessTable table, int contextSwitchingTime) {
+        return scheduleIndexed(table, contextSwitchingTime, null);
+    }
+
+    // Same, telling the listener (null for none) about every slice, preemption, quantum change and completion
+    public static Timeline scheduleIndexed(ProcessTable table, int contextSwitchingTime, SchedulingListener listener) {
+        // Same scaling factors as calculateV1() and calculateV2()
+        double lastArriveTime = 0.0;
+        double maxBurstTime = 0.0;
+        for (int row = 0; row < table.size(); row++) {
+            lastArriveTime = Math.max(lastArriveTime, table.getArrivalTime(row));
+            maxBurstTime = Math.max(maxBurstTime, table.getBurstTime(row));
+        }
+        return runIndexed(table, contextSwitchingTime, lastArriveTime / 10.0, maxBurstTime / 10.0, null, listener);
+    }
+
+    // FCAI on the shared simulation kernel (FCAIPolicy). Unlike schedule(...), processes arriving during the
+    // non-preemptive part are admitted right away, and no context switch is paid when the process that used
+    // up its quantum is picked again.
+    public static Timeline scheduleOnKernel(ProcessTable table, int contextSwitchingTime) {
+        return new SimulationKernel(new FCAIPolicy()).run(table, contextSwitchingTime);
+    }
+
+    // Event loop behind both scheduleIndexed(...) methods; records every execution in timeline and reports
+    // it to listener when they are given
+    private static Timeline runIndexed(ProcessTable table, int contextSwitchingTime, double v1, double v2,
+                                       SliceLog timeline, SchedulingListener listener) {
+        table.resetState();
+        IndexedRun run = new IndexedRun(table, v1, v2);
+        Timeline executionOrder = new Timeline(table);
+        int currentTime = 0;
+        int choice = 2;  // Decision variable to choose scheduling strategy
+
+        while (run.hasPendingArrivals() || !run.fcfsQueue.isEmpty()) {
+            run.admitUpTo(currentTime, Double.NaN);  // Update the ready queue based on current time
+
+            // If the ready queue is empty, jump to the next arrival
+            if (run.fcfsQueue.isEmpty() && run.hasPendingArrivals()) {
+                currentTime = run.nextArrivalTime();
+                run.admitUpTo(currentTime, Double.NaN);
+            }
+
+            // Break if no process is left
+            if (run.fcfsQueue.isEmpty()) break;
+
+            int start = currentTime;  // Track the start time of the process
+
+            // Choose by lowest FCAI factor or in FCFS order, and take it out of both queues
+            int current = choice == 1 ? run.factorHeap.peek() : run.fcfsQueue.peek();
+            run.factorHeap.remove(current);
+            run.fcfsQueue.remove(current);
+            double currentFactor = table.getFcaiFactor(current);
+            if (listener != null) {
+                listener.onSliceStart(table.getPid(current), start);
+            }
+
+            // Execute the process non-preemptively for 40% of its quantum
+            int quantum = table.getUpdatedQuantum(current);
+            int nonPreemptiveTime = (int) Math.ceil(quantum * 0.4);
+            int executionTime = Math.min(nonPreemptiveTime, table.getRemainingTime(current));
+            currentTime += executionTime;
+            int remaining = table.getRemainingTime(current) - executionTime;
+            int remainingQuantum = quantum - executionTime;
+
+            // Keep running unless a process with a lower factor is waiting. Only newly admitted processes
+            // can lower the best factor in the queue, so the clock moves from one arrival to the next.
+            if (remaining > 0 && remainingQuantum > 0 && (run.factorHeap.isEmpty()
+                    || !(table.getFcaiFactor(run.factorHeap.peek()) < currentFactor))) {
+                int end = currentTime + Math.min(remaining, remainingQuantum);
+                int stop = end;
+                int tick = currentTime + 1;
+                while (tick <= end) {
+                    if (run.admitUpTo(tick, currentFactor)) {
+                        stop = tick;  // A better process arrived, stop here and requeue
+                        break;
+                    }
+                    if (!run.hasPendingArrivals() || run.nextArrivalTime() > end) {
+                        break;
+                    }
+                    tick = run.nextArrivalTime();
+                }
+                int ranFor = stop - currentTime;
+                currentTime = stop;
+                remaining -= ranFor;
+                remainingQuantum -= ranFor;
+            }
+            table.setRemainingTime(current, remaining);
+            executionOrder.append(current, start, currentTime - start);
+
+            // Update process status based on its remaining burst time
+            if (remaining == 0) {
+                table.setCompletionTime(current, currentTime);  // Mark the process as completed
+                if (timeline != null) {
+                    timeline.add(table.getPid(current), start, currentTime, quantum, SliceLog.COMPLETED);
+                }
+                if (listener != null) {
+                    report(listener, table.getPid(current), currentTime, quantum, SliceLog.COMPLETED, false);
+                }
+                choice = 2;
+            } else {
+                // Used the whole quantum: +2, preempted: add the unused part
+                int newQuantum = remainingQuantum == 0 ? quantum + 2 : quantum + remainingQuantum;
+                table.setUpdatedQuantum(current, newQuantum);
+                if (timeline != null) {
+                    timeline.add(table.getPid(current), start, currentTime, quantum, newQuantum);
+                }
+                if (listener != null) {
+                    report(listener, table.getPid(current), currentTime, quantum, newQuantum, remainingQuantum > 0);
+                }
+                run.enqueue(current);  // Re-add process to the ready queue with its new factor
+                choice = remainingQuantum == 0 ? 2 : 1;
+            }
+
+            // Account for context switching time
+            currentTime += contextSwitchingTime;
+        }
+        return executionOrder;
+    }
+
+    // Tells the listener how a slice ended: completed (newQuantum == SliceLog.COMPLETED), or preempted before
+    // the end of its quantum, or out of quantum; the last two change the quantum
+    private static void report(SchedulingListener listener, int pid, int time, int quantum, int newQuantum,
+                               boolean preempted) {
+        if (newQuantum == SliceLog.COMPLETED) {
+            listener.onCompleted(pid, time);
+            return;
+        }
+        if (preempted) {
+            listener.onPreempted(pid, time);
+        }
+        listener.onQuantumChanged(pid, quantum, newQuantum, time);
+    }
+
+    // Slices of a run as primitive columns, formatted only when printed
+    private static class SliceLog {
+        static final int COMPLETED = -1; // New quantum of a slice that finished its process
+
+        private int size;
+        private int[] pid = new int[16];
+        private int[] start = new int[16];
+        private int[] end = new int[16];
+        private int[] quantum = new int[16];
+        private int[] newQuantum = new int[16];
+
+        void add(int processId, int from, int to, int oldQuantum, int updatedQuantum) {
+            if (size == pid.length) {
+                int capacity = size * 2;
+                pid = Arrays.copyOf(pid, capacity);
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                quantum = Arrays.copyOf(quantum, capacity);
+                newQuantum = Arrays.copyOf(newQuantum, capacity);
+            }
+            pid[size] = processId;
+            start[size] = from;
+            end[size] = to;
+            quantum[size] = oldQuantum;
+            newQuantum[size] = updatedQuantum;
+            size++;
+        }
+
+        // Prints a line per slice, naming processes by PID through names
+        void print(Map<Integer, String> names) {
+            for (int i = 0; i < size; i++) {
+                String line = "Process " + names.get(pid[i]) + ": from " + start[i] + " to " + end[i];
+                if (newQuantum[i] == COMPLETED) {
+                    System.out.println(line + " --> completed");
+                } else {
+                    System.out.println(line + ", Quantum: " + quantum[i] + " --> " + newQuantum[i]);
+                }
+            }
+        }
+    }
+
+    // Ready queue state of runIndexed(...): an FCFS queue and a factor heap over the rows of the table
+    private static class IndexedRun {
+        private final ProcessTable table;
+        private final double v1;
+        private final double v2;
+        private final long[] queuedAt;       // Sequence number of the last enqueue, keeps FCFS order among ties
+        private final int[] arrivalOrder;    // Rows sorted by arrival time, then table order
+        private final int[] batch;           // Scratch buffer for the processes admitted in one step
+        private final IndexedMinHeap factorHeap;
+        private final IndexedFifoQueue fcfsQueue;
+        private int nextArrival;             // Cursor into arrivalOrder
+        private long sequence;               // Next enqueue sequence number
+
+        IndexedRun(ProcessTable table, double v1, double v2) {
+            this.table = table;
+            this.v1 = v1;
+            this.v2 = v2;
+            int n = table.size();
+            queuedAt = new long[n];
+            batch = new int[n];
+            arrivalOrder = table.arrivalOrder();
+
+            // Lowest factor first, ties go to the earlier arrival and then to whoever has waited longest
+            factorHeap = new IndexedMinHeap(n, (a, b) -> {
+                int compare = Double.compare(table.getFcaiFactor(a), table.getFcaiFactor(b));
+                if (compare == 0) compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+                if (compare == 0) compare = Long.compare(queuedAt[a], queuedAt[b]);
+                return compare;
+            });
+            fcfsQueue = new IndexedFifoQueue(n);
+        }
+
+        boolean hasPendingArrivals() {
+            return nextArrival < arrivalOrder.length;
+        }
+
+        int nextArrivalTime() {
+            return table.getArrivalTime(arrivalOrder[nextArrival]);
+        }
+
+        // Moves every process that has arrived by the given time into the ready queue, in table order
+        // like updateReadyQueueState(...). Returns whether one of them has a factor below runningFactor.
+        boolean admitUpTo(int time, double runningFactor) {
+            int count = 0;
+            while (hasPendingArrivals() && nextArrivalTime() <= time) {
+                batch[count++] = arrivalOrder[nextArrival++];
+            }
+            Arrays.sort(batch, 0, count);
+            boolean better = false;
+            for (int i = 0; i < count; i++) {
+                enqueue(batch[i]);
+                better |= table.getFcaiFactor(batch[i]) < runningFactor;
+            }
+            return better;
+        }
+
+        // Adds a process at the back of the FCFS queue and into the heap, with its factor for the current burst
+        void enqueue(int row) {
+            table.setFcaiFactor(row, Process.fcaiFactor(table.getPriority(row), table.getArrivalTime(row),
+                    table.getRemainingTime(row), v1, v2));
+            queuedAt[row] = sequence++;
+            fcfsQueue.add(row);
+            factorHeap.add(row);
+        }
+    }
+
     // Calculate scaling factor v1 based on the latest arrival time
     private void calculateV1() {
         double lastArriveTime = processList.stream()
@@ -165,7 +435,12 @@ public class FCAIScheduler {
 
     // Print the results (timeline, waiting time, turnaround time) for the execution
     public void printResults(List<Process> processes, List<ProcessExecution> executionOrder) {
-        timeline.forEach(System.out::println);  // Print the execution timeline
+        // Print the execution timeline
+        Map<Integer, String> names = new HashMap<>();
+        for (Process p : processes) {
+            names.put(p.getPid(), p.getName());
+        }
+        timeline.print(names);
 
         // Print individual process results (waiting time, turnaround time)
         for (Process p : processes) {
@@ -0,0 +1,107 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// First-come-first-served queue of process indices (0 .. capacity-1), linked through arrays so that
+// any index can be taken out of the middle in O(1) while the others keep their order
+public class IndexedFifoQueue {
+    private static final int NONE = -1;
+
+    private int[] next;      // next[index] = index queued after it
+    private int[] previous;  // previous[index] = index queued before it
+    private boolean[] queued; // Whether the index is currently in the queue
+    private int head = NONE; // Oldest index in the queue
+    private int tail = NONE; // Newest index in the queue
+    private int size;        // Number of queued indices
+
+    // Creates an empty queue able to hold indices in the range [0, capacity)
+    public IndexedFifoQueue(int capacity) {
+        next = new int[Math.max(capacity, 1)];
+        previous = new int[Math.max(capacity, 1)];
+        queued = new boolean[Math.max(capacity, 1)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int index) {
+        return index < queued.length && queued[index];
+    }
+
+    // Returns the oldest index without removing it (-1 if the queue is empty)
+    public int peek() {
+        return head;
+    }
+
+    // Adds an index that is not yet queued at the back of the queue
+    public void add(int index) {
+        ensureCapacity(index + 1);
+        queued[index] = true;
+        previous[index] = tail;
+        next[index] = NONE;
+        if (tail == NONE) {
+            head = index;
+        } else {
+            next[tail] = index;
+        }
+        tail = index;
+        size++;
+    }
+
+    // Removes and returns the oldest index (-1 if the queue is empty)
+    public int poll() {
+        int first = head;
+        if (first != NONE) {
+            remove(first);
+        }
+        return first;
+    }
+
+    // Removes the given index wherever it is, returns whether it was queued
+    public boolean remove(int index) {
+        if (!contains(index)) {
+            return false;
+        }
+        int before = previous[index];
+        int after = next[index];
+        if (before == NONE) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tail = before;
+        } else {
+            previous[after] = before;
+        }
+        queued[index] = false;
+        size--;
+        return true;
+    }
+
+    // Empties the queue, keeping the arrays for reuse
+    public void clear() {
+        while (head != NONE) {
+            queued[head] = false;
+            head = next[head];
+        }
+        tail = NONE;
+        size = 0;
+    }
+
+    // Grows the backing arrays so indices below minCapacity can be stored
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= queued.length) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, queued.length * 2);
+        next = Arrays.copyOf(next, newCapacity);
+        previous = Arrays.copyOf(previous, newCapacity);
+        queued = Arrays.copyOf(queued, newCapacity);
+    }
+}
@@ -0,0 +1,150 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// Binary min-heap of process indices (0 .. capacity-1) that also remembers where each index sits,
+// so a process can be removed or re-keyed in O(log n) instead of scanning the whole queue
+public class IndexedMinHeap {
+
+    // Compares two process indices, the same contract as java.util.Comparator but without boxing
+    public interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private final IndexComparator comparator; // Ordering of the indices (smallest comes out first)
+    private int[] heap;                        // Heap array holding process indices
+    private int[] position;                    // position[index] = slot in heap, or -1 when absent
+    private int size;                          // Number of indices currently in the heap
+
+    // Creates an empty heap able to hold indices in the range [0, capacity)
+    public IndexedMinHeap(int capacity, IndexComparator comparator) {
+        this.comparator = comparator;
+        this.heap = new int[Math.max(capacity, 1)];
+        this.position = new int[Math.max(capacity, 1)];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int index) {
+        return index < position.length && position[index] >= 0;
+    }
+
+    // Returns the smallest index without removing it (-1 if the heap is empty)
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    // Adds an index that is not yet in the heap
+    public void add(int index) {
+        ensureCapacity(index + 1);
+        heap[size] = index;
+        position[index] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    // Removes and returns the smallest index (-1 if the heap is empty)
+    public int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    // Removes the given index if present, returns whether it was in the heap
+    public boolean remove(int index) {
+        if (!contains(index)) {
+            return false;
+        }
+        removeAt(position[index]);
+        return true;
+    }
+
+    // Restores heap order after the key of an index changed (in either direction)
+    public void update(int index) {
+        int slot = position[index];
+        siftUp(slot);
+        siftDown(position[index]);
+    }
+
+    // Empties the heap, keeping the arrays for reuse
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // Grows the backing arrays so indices below minCapacity can be stored
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= position.length) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, position.length * 2);
+        heap = Arrays.copyOf(heap, newCapacity);
+        int oldLength = position.length;
+        position = Arrays.copyOf(position, newCapacity);
+        Arrays.fill(position, oldLength, newCapacity, -1);
+    }
+
+    private void removeAt(int slot) {
+        int removed = heap[slot];
+        position[removed] = -1;
+        size--;
+        if (slot == size) {
+            return;
+        }
+        // Move the last element into the hole and let it find its place
+        int moved = heap[size];
+        heap[slot] = moved;
+        position[moved] = slot;
+        siftUp(slot);
+        if (position[moved] == slot) {
+            siftDown(slot);
+        }
+    }
+
+    private void siftUp(int slot) {
+        int index = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (comparator.compare(index, heap[parent]) >= 0) {
+                break;
+            }
+            heap[slot] = heap[parent];
+            position[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = index;
+        position[index] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int index = heap[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (comparator.compare(index, heap[child]) <= 0) {
+                break;
+            }
+            heap[slot] = heap[child];
+            position[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = index;
+        position[index] = slot;
+    }
+}
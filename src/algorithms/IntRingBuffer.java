@@ -0,0 +1,68 @@
+package algorithms;
+
+// First-in-first-out queue of ints in a circular array that doubles when full. Unlike IndexedFifoQueue it
+// holds any int values, needs no arrays sized by the largest value, and only takes from the front, which
+// is all a round-robin ready queue does.
+public class IntRingBuffer {
+    private int[] items;
+    private int head;  // Slot of the oldest item
+    private int size;  // Number of items
+
+    // Creates an empty buffer with room for capacity items before it grows (rounded up to a power of two)
+    public IntRingBuffer(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(capacity, 1));
+        if (slots < capacity) {
+            slots <<= 1;
+        }
+        items = new int[slots];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Adds an item at the back
+    public void add(int item) {
+        if (size == items.length) {
+            grow();
+        }
+        items[(head + size) & (items.length - 1)] = item;
+        size++;
+    }
+
+    // Oldest item, without removing it (the buffer must not be empty)
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("The buffer is empty");
+        }
+        return items[head];
+    }
+
+    // Removes and returns the oldest item (the buffer must not be empty)
+    public int poll() {
+        int item = peek();
+        head = (head + 1) & (items.length - 1);
+        size--;
+        return item;
+    }
+
+    // Removes every item, keeping the array for reuse
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Doubles the array, moving the items to its start in order
+    private void grow() {
+        int[] larger = new int[items.length * 2];
+        int untilEnd = items.length - head;
+        System.arraycopy(items, head, larger, 0, untilEnd);
+        System.arraycopy(items, 0, larger, untilEnd, head);
+        items = larger;
+        head = 0;
+    }
+}
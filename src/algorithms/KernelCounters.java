@@ -0,0 +1,97 @@
+package algorithms;
+
+// Counts of what the simulation kernel did during its last run. Always kept (a few increments per event),
+// so they are there after any run without a profiler.
+public class KernelCounters {
+    long events;                // Events taken off the event queue, stale ones included
+    long decisions;             // Processes selected to run
+    long readyQueueAdds;        // Processes put in the ready queue (arrivals and returns)
+    long maxReadyQueueDepth;    // Most processes waiting in the ready queue at once
+    long preemptions;           // Running processes taken off the CPU before their slice ended
+    long contextSwitches;       // Switches started with work left
+    long starvationPromotions;  // Starved processes picked ahead of their turn
+    long quantumUpdates;        // Quantum changes (FCAI)
+    long migrations;            // Processes that ran on a different core than last time (multi-core runs)
+    long steals;                // Processes an idle core took from another core's queue (multi-core runs)
+
+    // Clears every count
+    public void reset() {
+        events = 0;
+        decisions = 0;
+        readyQueueAdds = 0;
+        maxReadyQueueDepth = 0;
+        preemptions = 0;
+        contextSwitches = 0;
+        starvationPromotions = 0;
+        quantumUpdates = 0;
+        migrations = 0;
+        steals = 0;
+    }
+
+    // Replaces every count with those of another object
+    public void copyFrom(KernelCounters other) {
+        events = other.events;
+        decisions = other.decisions;
+        readyQueueAdds = other.readyQueueAdds;
+        maxReadyQueueDepth = other.maxReadyQueueDepth;
+        preemptions = other.preemptions;
+        contextSwitches = other.contextSwitches;
+        starvationPromotions = other.starvationPromotions;
+        quantumUpdates = other.quantumUpdates;
+        migrations = other.migrations;
+        steals = other.steals;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public long getReadyQueueAdds() {
+        return readyQueueAdds;
+    }
+
+    // Adds and removals
+    public long getReadyQueueOperations() {
+        return readyQueueAdds + decisions;
+    }
+
+    public long getMaxReadyQueueDepth() {
+        return maxReadyQueueDepth;
+    }
+
+    public long getPreemptions() {
+        return preemptions;
+    }
+
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+
+    public long getStarvationPromotions() {
+        return starvationPromotions;
+    }
+
+    public long getQuantumUpdates() {
+        return quantumUpdates;
+    }
+
+    public long getMigrations() {
+        return migrations;
+    }
+
+    public long getSteals() {
+        return steals;
+    }
+
+    @Override
+    public String toString() {
+        return "events=" + events + ", decisions=" + decisions + ", readyQueueAdds=" + readyQueueAdds
+                + ", maxReadyQueueDepth=" + maxReadyQueueDepth + ", preemptions=" + preemptions
+                + ", contextSwitches=" + contextSwitches + ", starvationPromotions=" + starvationPromotions
+                + ", quantumUpdates=" + quantumUpdates + ", migrations=" + migrations + ", steals=" + steals;
+    }
+}
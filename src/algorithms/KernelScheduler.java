@@ -0,0 +1,88 @@
+package algorithms;
+
+import models.ProcessSource;
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+import models.Workload;
+
+import java.util.function.Supplier;
+
+// Scheduler that runs a ReadyQueuePolicy on the simulation kernel, or on the multi-core kernel. Each
+// RunContext gets its own kernels and policies on first use and keeps them for later runs.
+public class KernelScheduler implements Scheduler {
+    private final String id;
+    private final String name;
+    private final boolean usesQuantum;
+    private final Supplier<ReadyQueuePolicy> policyFactory;
+
+    public KernelScheduler(String id, String name, boolean usesQuantum, Supplier<ReadyQueuePolicy> policyFactory) {
+        this.id = id;
+        this.name = name;
+        this.usesQuantum = usesQuantum;
+        this.policyFactory = policyFactory;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean usesQuantum() {
+        return usesQuantum;
+    }
+
+    @Override
+    public Timeline schedule(Workload workload, int contextSwitchingTime, RunContext context) {
+        ProcessTable table = context.load(workload);
+        SimulationKernel kernel = kernelFor(context);
+        kernel.run(table, contextSwitchingTime, context.getTimeline(), context.getStatistics());
+        context.getCounters().copyFrom(kernel.getCounters());
+        return context.getTimeline();
+    }
+
+    // Fails with IllegalArgumentException if the policy needs the whole workload up front
+    @Override
+    public RunStatistics scheduleStream(ProcessSource source, int contextSwitchingTime, RunContext context) {
+        SimulationKernel kernel = kernelFor(context);
+        kernel.runStreaming(source, context.getStreamTable(), contextSwitchingTime, context.getStatistics());
+        context.getCounters().copyFrom(kernel.getCounters());
+        return context.getStatistics();
+    }
+
+    @Override
+    public MultiCoreKernel scheduleMultiCore(Workload workload, int contextSwitchingTime, int cores,
+                                             MultiCoreKernel.LoadBalancing balancing, RunContext context) {
+        ProcessTable table = context.load(workload);
+        MultiCoreKernel kernel = context.getMultiCoreKernel(this);
+        if (kernel == null) {
+            kernel = new MultiCoreKernel(policyFactory);
+            context.putMultiCoreKernel(this, kernel);
+        }
+        if (kernel.getListener() != context.getListener()) {
+            kernel.setListener(context.getListener());
+        }
+        kernel.run(table, contextSwitchingTime, cores, balancing, context.getStatistics());
+        context.getCounters().copyFrom(kernel.getCounters());
+        return kernel;
+    }
+
+    // Kernel of the context, listening with the context's listener
+    private SimulationKernel kernelFor(RunContext context) {
+        SimulationKernel kernel = context.getKernel(this);
+        if (kernel == null) {
+            kernel = new SimulationKernel(policyFactory.get());
+            context.putKernel(this, kernel);
+        }
+        if (kernel.getListener() != context.getListener()) {
+            kernel.setListener(context.getListener());
+        }
+        return kernel;
+    }
+}
@@ -0,0 +1,78 @@
+package algorithms;
+
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+import models.Workload;
+
+import java.util.Arrays;
+
+// Scheduler that runs one of the original single-purpose engines instead of the simulation kernel
+// (ShortestRemainingTimeFirstScheduler.scheduleEventDriven, FCAIScheduler.scheduleIndexed). They give
+// exactly the results of the original tick-by-tick algorithms, whose context switching and starvation rules
+// differ slightly from the kernel policies', so they are registered under their own ids for comparisons.
+//
+// The engines fill in a timeline and the table's completion times; the metrics are worked out from those
+// after the run. The kernel counters stay at zero, and the listener gets whatever the engine reports while it
+// runs plus every run of the timeline (onSliceEnd) once it is over.
+public class LegacyScheduler implements Scheduler {
+    private final String id;
+    private final String name;
+    private final boolean usesQuantum;
+    private final Engine engine;
+
+    // Runs every process of the table to completion, telling the listener (may be null) what it reports
+    public interface Engine {
+        Timeline run(ProcessTable table, int contextSwitchingTime, SchedulingListener listener);
+    }
+
+    public LegacyScheduler(String id, String name, boolean usesQuantum, Engine engine) {
+        this.id = id;
+        this.name = name;
+        this.usesQuantum = usesQuantum;
+        this.engine = engine;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean usesQuantum() {
+        return usesQuantum;
+    }
+
+    @Override
+    public Timeline schedule(Workload workload, int contextSwitchingTime, RunContext context) {
+        ProcessTable table = context.load(workload);
+        SchedulingListener listener = context.getListener();
+        Timeline timeline = engine.run(table, contextSwitchingTime, listener);
+
+        RunStatistics statistics = context.getStatistics();
+        statistics.reset();
+        context.getCounters().reset();
+        int[] firstRun = new int[table.size()];  // By row: start of its first run, -1 until it ran
+        Arrays.fill(firstRun, -1);
+        for (int i = 0; i < timeline.size(); i++) {
+            int row = timeline.getRow(i);
+            if (firstRun[row] < 0) {
+                firstRun[row] = timeline.getStart(i);
+            }
+            statistics.recordRun(timeline.getPid(i), timeline.getStart(i), timeline.getDuration(i));
+            if (listener != null) {
+                listener.onSliceEnd(timeline.getPid(i), timeline.getStart(i), timeline.getDuration(i));
+            }
+        }
+        for (int row = 0; row < table.size(); row++) {
+            statistics.recordCompletion(table.getArrivalTime(row), table.getBurstTime(row), firstRun[row],
+                    table.getCompletionTime(row));
+        }
+        return timeline;
+    }
+}
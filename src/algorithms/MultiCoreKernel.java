@@ -0,0 +1,501 @@
+package algorithms;
+
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// Discrete-event simulation of several CPUs (cores) sharing one clock. Each core runs one process at a time
+// with the same events and context switching cost model as SimulationKernel; with one core the results are
+// the same as SimulationKernel's. How processes are spread over the cores depends on the LoadBalancing:
+//
+//   GLOBAL         one ready queue shared by every core. An arriving process preempts the first core (in
+//                  core order) whose running process the policy says it preempts.
+//   WORK_STEALING  a ready queue per core. Arrivals go to the least loaded core (waiting processes plus the
+//                  one running or being switched to, ties to the lower core); a process that leaves a core
+//                  goes back to that core's queue. A core with nothing to run takes the next process from the
+//                  core with the most waiting processes, and the process's policy state moves with it
+//                  (ReadyQueuePolicy.migrate).
+//   PINNED         a ready queue per core; a process only ever runs on core (pid mod cores).
+//
+// Metrics are kept per core (completions count on the core the process finished on) and added up into the
+// aggregate statistics at the end of the run. The kernel counts migrations (a process running on another core
+// than last time) and steals on top of the usual KernelCounters. Flight Recorder events are only emitted by
+// SimulationKernel.
+//
+// Per-core queues need a policy per core, each indexed by table row, so their memory grows with
+// cores x processes. A kernel keeps its policies, queues and timelines between runs.
+public class MultiCoreKernel {
+    // How processes are spread over the cores
+    public enum LoadBalancing {
+        GLOBAL,
+        WORK_STEALING,
+        PINNED
+    }
+
+    private final Supplier<ReadyQueuePolicy> policyFactory;
+    private final EventQueue events = new EventQueue();
+    private final KernelCounters counters = new KernelCounters();
+    private final SchedulingListener policyEvents = new PolicyEvents(); // What the policies report to
+    private ReadyQueuePolicy[] policies = new ReadyQueuePolicy[0]; // Ready queue of each core (GLOBAL uses the first)
+    private RunStatistics[] coreStatistics = new RunStatistics[0];
+    private Timeline[] timelines = new Timeline[0];
+    private SchedulingListener listener;   // Null when nobody listens
+
+    // State of the current run
+    private ProcessTable table;
+    private int cores;
+    private LoadBalancing balancing;
+    private int contextSwitchingTime;
+    private int[] arrivalOrder = new int[0]; // Rows in the order they arrive (first processCount entries)
+    private long[] arrivalKeys = new long[0]; // Scratch space for sorting arrivalOrder
+    private int processCount;
+    private int nextArrival;               // Cursor into arrivalOrder
+    private int[] lastCore = new int[0];   // By row: core the process last ran on, -1 if it has not run yet
+    private int[] waiting = new int[0];    // Processes in each ready queue
+    private int totalWaiting;
+    private int idleCores;                 // Cores neither running a process nor switching
+
+    // State of each core
+    private int[] running = new int[0];    // Row on the core, -1 if none
+    private ReadyQueuePolicy[] runningPolicy = new ReadyQueuePolicy[0]; // Policy that selected it (keeps its state)
+    private boolean[] switching = new boolean[0]; // A context switch is in progress
+    private long[] selectedAt = new long[0];     // Time the running process was selected
+    private long[] phaseStart = new long[0];     // Start of the current time slice
+    private int[] remainingAtPhase = new int[0]; // Remaining time of the running process at phaseStart
+    private long[] cpuEventTime = new long[0];   // Time of the pending completion or quantum expiry
+    private long[] cpuEventStamp = new long[0];  // Stamp of that event; older events of the core are stale
+    private long nextStamp;
+    private boolean[] canPreempt = new boolean[0]; // Scratch space for onArrival
+    private boolean[] preempted = new boolean[0];
+
+    // Every core gets its own policy from policyFactory when it needs a ready queue of its own
+    public MultiCoreKernel(Supplier<ReadyQueuePolicy> policyFactory) {
+        this.policyFactory = policyFactory;
+    }
+
+    // Listener told about every slice, preemption and completion of later runs, on any core; null removes it
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    public SchedulingListener getListener() {
+        return listener;
+    }
+
+    // Counts of the last run, all cores together
+    public KernelCounters getCounters() {
+        return counters;
+    }
+
+    // Cores of the last run
+    public int getCores() {
+        return cores;
+    }
+
+    public LoadBalancing getLoadBalancing() {
+        return balancing;
+    }
+
+    // Metrics of one core in the last run
+    public RunStatistics getStatistics(int core) {
+        checkCore(core);
+        return coreStatistics[core];
+    }
+
+    // Runs of one core in the last run
+    public Timeline getTimeline(int core) {
+        checkCore(core);
+        return timelines[core];
+    }
+
+    // Runs every process in the table to completion on the given number of cores; remaining and completion
+    // times go to the table, the runs of each core to getTimeline(core) and the metrics of all cores together
+    // to statistics (reset first)
+    public RunStatistics run(ProcessTable table, int contextSwitchingTime, int cores, LoadBalancing balancing,
+                             RunStatistics statistics) {
+        if (cores < 1) {
+            throw new IllegalArgumentException("Cores must be at least 1");
+        }
+        table.resetState();
+        int n = table.size();
+        if (arrivalOrder.length < n) {
+            arrivalOrder = new int[n];
+            arrivalKeys = new long[n];
+            lastCore = new int[n];
+        }
+        table.arrivalOrder(arrivalOrder, arrivalKeys);
+        Arrays.fill(lastCore, 0, n, -1);
+        this.table = table;
+        this.cores = cores;
+        this.balancing = balancing;
+        this.processCount = n;
+        this.nextArrival = 0;
+        prepareCores(table);
+        simulate(contextSwitchingTime);
+        this.table = null;
+
+        statistics.reset();
+        for (int core = 0; core < cores; core++) {
+            statistics.add(coreStatistics[core]);
+        }
+        statistics.setCores(cores);
+        return statistics;
+    }
+
+    // Grows the per-core arrays and resets the policies, statistics and timelines the run uses
+    private void prepareCores(ProcessTable table) {
+        if (running.length < cores) {
+            policies = Arrays.copyOf(policies, cores);
+            coreStatistics = Arrays.copyOf(coreStatistics, cores);
+            timelines = Arrays.copyOf(timelines, cores);
+            waiting = new int[cores];
+            running = new int[cores];
+            runningPolicy = new ReadyQueuePolicy[cores];
+            switching = new boolean[cores];
+            selectedAt = new long[cores];
+            phaseStart = new long[cores];
+            remainingAtPhase = new int[cores];
+            cpuEventTime = new long[cores];
+            cpuEventStamp = new long[cores];
+            canPreempt = new boolean[cores];
+            preempted = new boolean[cores];
+        }
+        int queues = balancing == LoadBalancing.GLOBAL ? 1 : cores;
+        for (int queue = 0; queue < queues; queue++) {
+            if (policies[queue] == null) {
+                policies[queue] = policyFactory.get();
+                policies[queue].setListener(policyEvents);
+            }
+            policies[queue].reset(table);
+        }
+        for (int core = 0; core < cores; core++) {
+            if (coreStatistics[core] == null) {
+                coreStatistics[core] = new RunStatistics();
+            }
+            coreStatistics[core].reset();
+            if (timelines[core] == null || timelines[core].getTable() != table) {
+                timelines[core] = new Timeline(table);
+            }
+            timelines[core].clear();
+            waiting[core] = 0;
+            running[core] = -1;
+            runningPolicy[core] = null;
+            switching[core] = false;
+        }
+    }
+
+    private void simulate(int contextSwitchingTime) {
+        this.contextSwitchingTime = contextSwitchingTime;
+        this.totalWaiting = 0;
+        this.idleCores = cores;
+        counters.reset();
+        events.clear();
+        scheduleNextArrival();
+
+        while (!events.isEmpty()) {
+            events.pop();
+            counters.events++;
+            long now = events.getTime();
+            int core = events.getRow();
+            switch (events.getType()) {
+                case EventQueue.ARRIVAL:
+                    onArrival(now);
+                    break;
+                case EventQueue.COMPLETION:
+                    if (events.getStamp() == cpuEventStamp[core]) {
+                        onCompletion(core, now);
+                    }
+                    break;
+                case EventQueue.QUANTUM_EXPIRY:
+                    if (events.getStamp() == cpuEventStamp[core]) {
+                        onQuantumExpiry(core, now);
+                    }
+                    break;
+                case EventQueue.CONTEXT_SWITCH_DONE:
+                    switching[core] = false;
+                    idleCores++;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event type " + events.getType());
+            }
+            if (idleCores > 0 && totalWaiting > 0) {
+                wakeIdleCores(now);
+            }
+        }
+    }
+
+    // Admits every process arriving now, each into the queue the load balancing picks, and preempts the
+    // cores they take
+    private void onArrival(long now) {
+        for (int core = 0; core < cores; core++) {
+            // A process arriving exactly when the running one leaves the core waits for that event instead
+            canPreempt[core] = running[core] != -1 && now < cpuEventTime[core];
+            preempted[core] = false;
+            if (canPreempt[core]) {
+                updateRemaining(core, now);
+            }
+        }
+        int arrived;
+        while ((arrived = peekArrival()) != -1 && table.getArrivalTime(arrived) <= now) {
+            nextArrival++;
+            if (balancing == LoadBalancing.GLOBAL) {
+                addReady(0, arrived, now);
+                for (int core = 0; core < cores; core++) {
+                    if (canPreempt[core] && !preempted[core] && policies[0].preempts(arrived, running[core], now)) {
+                        preempted[core] = true;
+                        break;
+                    }
+                }
+            } else {
+                int core = balancing == LoadBalancing.PINNED
+                        ? Math.floorMod(table.getPid(arrived), cores) : leastLoadedCore();
+                addReady(core, arrived, now);
+                if (canPreempt[core] && !preempted[core]
+                        && runningPolicy[core].preempts(arrived, running[core], now)) {
+                    preempted[core] = true;
+                }
+            }
+        }
+        scheduleNextArrival();
+
+        for (int core = 0; core < cores; core++) {
+            if (preempted[core]) {
+                int left = running[core];
+                ReadyQueuePolicy policy = runningPolicy[core];
+                policyEvents.onPreempted(table.getPid(left), now);
+                endSlice(core, now);
+                policy.onPreempted(left, now - selectedAt[core], now);
+                addReady(queueOf(core), left, now);
+                switchFrom(core, left, now);
+            }
+        }
+    }
+
+    private void onCompletion(int core, long now) {
+        int finished = running[core];
+        ReadyQueuePolicy policy = runningPolicy[core];
+        endSlice(core, now);
+        table.setCompletionTime(finished, (int) now);
+        policy.onCompleted(finished, now);
+        if (listener != null) {
+            listener.onCompleted(table.getPid(finished), now);
+        }
+        coreStatistics[core].recordCompletion(table.getArrivalTime(finished), table.getBurstTime(finished),
+                table.getFirstRunTime(finished), now);
+        startSwitch(core, finished, now);
+    }
+
+    private void onQuantumExpiry(int core, long now) {
+        updateRemaining(core, now);
+        if (runningPolicy[core].continueAfterSlice(running[core], now - selectedAt[core], now)) {
+            startPhase(core, now);
+            return;
+        }
+        int left = running[core];
+        endSlice(core, now);
+        addReady(queueOf(core), left, now);
+        switchFrom(core, left, now);
+    }
+
+    // The given process just went back to the core's queue: it keeps the core if the policy picks it again,
+    // otherwise the core switches to another process
+    private void switchFrom(int core, int left, long now) {
+        int queue = queueOf(core);
+        if (policies[queue].peek(now) == left) {
+            dispatch(core, queue, select(queue, now), now);
+        } else {
+            startSwitch(core, left, now);
+        }
+    }
+
+    // Starts a context switch away from the given process; the core picks its next process when it is done
+    // (right after the current event if switching is free)
+    private void startSwitch(int core, int from, long now) {
+        if (totalWaiting > 0 || peekArrival() != -1) {
+            counters.contextSwitches++;
+        }
+        if (contextSwitchingTime == 0) {
+            return;
+        }
+        switching[core] = true;
+        idleCores--;
+        events.push(now + contextSwitchingTime, EventQueue.CONTEXT_SWITCH_DONE, core, 0);
+    }
+
+    // Gives every idle core the next process of its queue; with work stealing, a core whose queue is empty
+    // takes one from the core with the most waiting processes
+    private void wakeIdleCores(long now) {
+        for (int core = 0; core < cores && idleCores > 0 && totalWaiting > 0; core++) {
+            if (running[core] != -1 || switching[core]) {
+                continue;
+            }
+            int queue = queueOf(core);
+            if (waiting[queue] == 0) {
+                if (balancing != LoadBalancing.WORK_STEALING) {
+                    continue;
+                }
+                // The process moves to this core's policy, which it goes back to when it leaves the core
+                int victim = busiestQueue();
+                int row = select(victim, now);
+                policies[victim].migrate(row, policies[queue], now);
+                counters.steals++;
+                dispatch(core, queue, row, now);
+                continue;
+            }
+            dispatch(core, queue, select(queue, now), now);
+        }
+    }
+
+    // Ready queue a core takes its processes from and puts them back into
+    private int queueOf(int core) {
+        return balancing == LoadBalancing.GLOBAL ? 0 : core;
+    }
+
+    // Core with the fewest waiting processes plus the one it runs or switches to, the lowest on ties
+    private int leastLoadedCore() {
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int core = 0; core < cores; core++) {
+            int load = waiting[core] + (running[core] != -1 || switching[core] ? 1 : 0);
+            if (load < bestLoad) {
+                best = core;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    // Queue with the most waiting processes, the lowest on ties
+    private int busiestQueue() {
+        int best = 0;
+        for (int queue = 1; queue < cores; queue++) {
+            if (waiting[queue] > waiting[best]) {
+                best = queue;
+            }
+        }
+        return best;
+    }
+
+    // Puts a process in a ready queue
+    private void addReady(int queue, int row, long now) {
+        policies[queue].add(row, now);
+        counters.readyQueueAdds++;
+        waiting[queue]++;
+        totalWaiting++;
+        if (totalWaiting > counters.maxReadyQueueDepth) {
+            counters.maxReadyQueueDepth = totalWaiting;
+        }
+    }
+
+    // Takes the process to run next out of a ready queue
+    private int select(int queue, long now) {
+        counters.decisions++;
+        waiting[queue]--;
+        totalWaiting--;
+        return policies[queue].select(now);
+    }
+
+    // Puts a process selected from the given queue on a core
+    private void dispatch(int core, int queue, int row, long now) {
+        if (table.getFirstRunTime(row) < 0) {
+            table.setFirstRunTime(row, (int) now);
+        }
+        if (lastCore[row] != -1 && lastCore[row] != core) {
+            counters.migrations++;
+        }
+        lastCore[row] = core;
+        if (listener != null) {
+            listener.onSliceStart(table.getPid(row), now);
+        }
+        running[core] = row;
+        runningPolicy[core] = policies[queue];
+        selectedAt[core] = now;
+        idleCores--;
+        startPhase(core, now);
+    }
+
+    // Starts a time slice of the core's process and schedules the event that ends it
+    private void startPhase(int core, long now) {
+        int row = running[core];
+        phaseStart[core] = now;
+        remainingAtPhase[core] = table.getRemainingTime(row);
+        long slice = runningPolicy[core].timeSlice(row, now);
+        cpuEventStamp[core] = ++nextStamp;
+        if (remainingAtPhase[core] <= slice) {
+            cpuEventTime[core] = now + remainingAtPhase[core];
+            events.push(cpuEventTime[core], EventQueue.COMPLETION, core, cpuEventStamp[core]);
+        } else {
+            cpuEventTime[core] = now + slice;
+            events.push(cpuEventTime[core], EventQueue.QUANTUM_EXPIRY, core, cpuEventStamp[core]);
+        }
+    }
+
+    // Brings the remaining time of the core's process up to date
+    private void updateRemaining(int core, long now) {
+        table.setRemainingTime(running[core], (int) (remainingAtPhase[core] - (now - phaseStart[core])));
+    }
+
+    // Takes the process off the core and records its run
+    private void endSlice(int core, long now) {
+        updateRemaining(core, now);
+        int row = running[core];
+        long runStart = selectedAt[core];
+        timelines[core].append(row, (int) runStart, (int) (now - runStart));
+        coreStatistics[core].recordRun(table.getPid(row), runStart, now - runStart);
+        if (listener != null && now > runStart) {
+            listener.onSliceEnd(table.getPid(row), runStart, now - runStart);
+        }
+        running[core] = -1;
+        idleCores++;
+        cpuEventStamp[core] = ++nextStamp; // Any pending completion or expiry no longer applies
+    }
+
+    private void scheduleNextArrival() {
+        int next = peekArrival();
+        if (next != -1) {
+            events.push(table.getArrivalTime(next), EventQueue.ARRIVAL, -1, 0);
+        }
+    }
+
+    // Row of the next process to arrive, -1 if there is none
+    private int peekArrival() {
+        return nextArrival < processCount ? arrivalOrder[nextArrival] : -1;
+    }
+
+    private void checkCore(int core) {
+        if (core < 0 || core >= cores) {
+            throw new IndexOutOfBoundsException("Core " + core + " of " + cores);
+        }
+    }
+
+    // Receives what the policies report (and the kernel's own preemptions): counts it and passes it on to
+    // the listener
+    private class PolicyEvents implements SchedulingListener {
+        @Override
+        public void onPreempted(int pid, long time) {
+            counters.preemptions++;
+            if (listener != null) {
+                listener.onPreempted(pid, time);
+            }
+        }
+
+        @Override
+        public void onStarved(int pid, long time) {
+            counters.starvationPromotions++;
+            if (listener != null) {
+                listener.onStarved(pid, time);
+            }
+        }
+
+        @Override
+        public void onQuantumChanged(int pid, int oldQuantum, int newQuantum, long time) {
+            counters.quantumUpdates++;
+            if (listener != null) {
+                listener.onQuantumChanged(pid, oldQuantum, newQuantum, time);
+            }
+        }
+    }
+}
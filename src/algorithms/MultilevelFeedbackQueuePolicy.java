@@ -0,0 +1,210 @@
+package algorithms;
+
+import models.ProcessTable;
+
+import java.util.Arrays;
+
+// Ready queue for a multi-level feedback queue (MLFQ). Level 0 is the highest; every level is a FIFO queue
+// with its own quantum. A new process starts at level 0, a process that uses its whole quantum moves one
+// level down (and the quantum change is reported to the listener), and a preempted one keeps its level.
+// An arriving process preempts a running process of a lower level. Every boostPeriod time units every
+// process, waiting or running, goes back to level 0, so long processes cannot starve.
+//
+// Like the Linux O(1) scheduler, a bitmap keeps which levels have waiting processes and the next level
+// is found with a find-first-set, so a decision costs the same whatever the number of waiting processes.
+// The queues are linked lists through one next array indexed by row, and a boost splices them all onto
+// level 0 in level order without touching the processes: it bumps an epoch instead, and a process whose
+// level was set before the last boost is at level 0.
+public class MultilevelFeedbackQueuePolicy implements ReadyQueuePolicy {
+    private static final int NONE = -1;
+
+    // Levels and boost period of the registered "mlfq" scheduler
+    public static final int[] DEFAULT_QUANTA = {2, 4, 8, 16};
+    public static final long DEFAULT_BOOST_PERIOD = 200;
+
+    private final int[] quanta;          // Quantum of each level
+    private final long boostPeriod;      // Time between boosts, 0 for none
+    private final long[] bitmap;         // Bit l set when level l has waiting processes
+    private final int[] head;            // Oldest waiting process of each level, NONE if empty
+    private final int[] tail;            // Newest waiting process of each level
+    private ProcessTable table;
+    private SchedulingListener listener; // Told about demotions (null for none)
+    private int[] next = new int[0];     // By row: process queued after it on the same level
+    private int[] level = new int[0];    // By row: its level, if set since the last boost
+    private int[] levelEpoch = new int[0]; // By row: boosts when its level was set
+    private int boosts;                  // Boosts so far, counting a new run as one
+    private long nextBoost;              // Time of the next boost
+    private int size;                    // Waiting processes
+
+    // One level per quantum, level 0 first; boostPeriod 0 never boosts
+    public MultilevelFeedbackQueuePolicy(int[] quanta, long boostPeriod) {
+        if (quanta.length == 0) {
+            throw new IllegalArgumentException("At least one level is needed");
+        }
+        for (int quantum : quanta) {
+            if (quantum < 1) {
+                throw new IllegalArgumentException("Quanta must be at least 1: " + quantum);
+            }
+        }
+        if (boostPeriod < 0) {
+            throw new IllegalArgumentException("Boost period must not be negative: " + boostPeriod);
+        }
+        this.quanta = quanta.clone();
+        this.boostPeriod = boostPeriod;
+        this.bitmap = new long[(quanta.length + 63) >>> 6];
+        this.head = new int[quanta.length];
+        this.tail = new int[quanta.length];
+    }
+
+    public MultilevelFeedbackQueuePolicy() {
+        this(DEFAULT_QUANTA, DEFAULT_BOOST_PERIOD);
+    }
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        ensureRows(processTable.size());
+        Arrays.fill(bitmap, 0);
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+        boosts++; // Newer than every epoch of the last run, so each process starts at level 0
+        nextBoost = boostPeriod;
+        size = 0;
+    }
+
+    @Override
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    // A process that never ran starts at level 0; any other goes back to the level it is at
+    @Override
+    public void add(int row, long now) {
+        boostIfDue(now);
+        ensureRows(row + 1);
+        if (table.getFirstRunTime(row) < 0) {
+            setLevel(row, 0);
+        }
+        int l = levelOf(row);
+        next[row] = NONE;
+        if (head[l] == NONE) {
+            head[l] = row;
+            bitmap[l >>> 6] |= 1L << l;
+        } else {
+            next[tail[l]] = row;
+        }
+        tail[l] = row;
+        size++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int peek(long now) {
+        boostIfDue(now);
+        return size == 0 ? NONE : head[firstLevel()];
+    }
+
+    @Override
+    public int select(long now) {
+        boostIfDue(now);
+        int l = firstLevel();
+        int row = head[l];
+        head[l] = next[row];
+        if (head[l] == NONE) {
+            tail[l] = NONE;
+            bitmap[l >>> 6] &= ~(1L << l);
+        }
+        size--;
+        return row;
+    }
+
+    @Override
+    public long timeSlice(int row, long now) {
+        return quanta[levelOf(row)];
+    }
+
+    // The whole quantum was used: one level down
+    @Override
+    public boolean continueAfterSlice(int row, long ran, long now) {
+        int l = levelOf(row);
+        if (l + 1 < quanta.length) {
+            setLevel(row, l + 1);
+            if (listener != null) {
+                listener.onQuantumChanged(table.getPid(row), quanta[l], quanta[l + 1], now);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean preempts(int arrived, int running, long now) {
+        return levelOf(arrived) < levelOf(running);
+    }
+
+    // It keeps its level
+    @Override
+    public void migrate(int row, ReadyQueuePolicy to, long now) {
+        MultilevelFeedbackQueuePolicy other = (MultilevelFeedbackQueuePolicy) to;
+        other.boostIfDue(now);
+        other.ensureRows(row + 1);
+        other.setLevel(row, levelOf(row));
+    }
+
+    // Level a process is at
+    private int levelOf(int row) {
+        return levelEpoch[row] == boosts ? level[row] : 0;
+    }
+
+    private void setLevel(int row, int l) {
+        level[row] = l;
+        levelEpoch[row] = boosts;
+    }
+
+    // Highest level with waiting processes (there must be one)
+    private int firstLevel() {
+        int word = 0;
+        while (bitmap[word] == 0) {
+            word++;
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bitmap[word]);
+    }
+
+    // Moves every process to level 0 if a boost is due: the queues are appended to level 0 in level order
+    private void boostIfDue(long now) {
+        if (boostPeriod == 0 || now < nextBoost) {
+            return;
+        }
+        for (int l = 1; l < quanta.length; l++) {
+            if (head[l] == NONE) {
+                continue;
+            }
+            if (head[0] == NONE) {
+                head[0] = head[l];
+            } else {
+                next[tail[0]] = head[l];
+            }
+            tail[0] = tail[l];
+            head[l] = NONE;
+            tail[l] = NONE;
+        }
+        Arrays.fill(bitmap, 0);
+        if (size > 0) {
+            bitmap[0] = 1L;
+        }
+        boosts++;
+        nextBoost = (now / boostPeriod + 1) * boostPeriod;
+    }
+
+    private void ensureRows(int rows) {
+        if (next.length < rows) {
+            int capacity = Math.max(rows, next.length * 2);
+            next = Arrays.copyOf(next, capacity);
+            level = Arrays.copyOf(level, capacity);
+            levelEpoch = Arrays.copyOf(levelEpoch, capacity);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package algorithms;
+
+import models.ProcessTable;
+
+// Ready queue for priority scheduling: lower priority value first, then earlier arrival, then lower PID.
+// When preemptive, an arriving process with a better priority takes the CPU.
+public class PriorityPolicy implements ReadyQueuePolicy {
+    private final boolean preemptive;
+    private ProcessTable table;
+    private IndexedMinHeap ready;
+
+    public PriorityPolicy(boolean preemptive) {
+        this.preemptive = preemptive;
+    }
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        if (ready == null) {
+            ready = new IndexedMinHeap(processTable.size(), this::compare);
+        } else {
+            ready.clear();
+            ready.ensureCapacity(processTable.size());
+        }
+    }
+
+    @Override
+    public void add(int row, long now) {
+        ready.add(row);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ready.isEmpty();
+    }
+
+    @Override
+    public int peek(long now) {
+        return ready.peek();
+    }
+
+    @Override
+    public int select(long now) {
+        return ready.poll();
+    }
+
+    @Override
+    public boolean preempts(int arrived, int running, long now) {
+        return preemptive && compare(arrived, running) < 0;
+    }
+
+    private int compare(int a, int b) {
+        int compare = Integer.compare(table.getPriority(a), table.getPriority(b));
+        if (compare == 0) compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+        if (compare == 0) compare = Integer.compare(table.getPid(a), table.getPid(b));
+        return compare != 0 ? compare : Integer.compare(a, b);
+    }
+}
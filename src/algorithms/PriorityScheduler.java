@@ -2,13 +2,14 @@ package algorithms;
 
 import models.Process;
 import models.ProcessExecution;
-import java.util.ArrayList;
+import models.ProcessTable;
+import models.Timeline;
 import java.util.List;
 
 public class PriorityScheduler {
 
     // Schedules processes using a non-preemptive priority scheduling algorithm.
-    public List<ProcessExecution> schedule(List<Process> processes, int contextSwitchingTime) {
+    public Timeline schedule(List<Process> processes, int contextSwitchingTime) {
         // Sort processes based on priority first, and arrival time if priorities are equal
         processes.sort((p1, p2) -> {
             // Compare by priority
@@ -20,8 +21,8 @@ public class PriorityScheduler {
             return Integer.compare(p1.getArrivalTime(), p2.getArrivalTime());
         });
 
-        // List to store the execution order of processes
-        List<ProcessExecution> executionOrder = new ArrayList<>();
+        // Timeline to store the execution order of processes
+        Timeline executionOrder = new Timeline(processes);
 
         // Tracks the current time in the scheduler
         int currentTime = 0;
@@ -33,15 +34,8 @@ public class PriorityScheduler {
                 currentTime = process.getArrivalTime();
             }
 
-            // Add the process execution to the schedule
-            executionOrder.add(new ProcessExecution(
-                    process.getName(),        // Process name
-                    process.getBurstTime(),   // Execution duration (burst time)
-                    process.getColor(),       // Display color for visualization
-                    process.getPid(),         // Unique process ID
-                    process.getPriority(),    // Process priority
-                    currentTime               // Start time of execution
-            ));
+            // Add the process execution to the schedule (runs for its whole burst time)
+            executionOrder.append(process, currentTime, process.getBurstTime());
 
             // Update the process completion time
             currentTime += process.getBurstTime();
@@ -54,6 +48,43 @@ public class PriorityScheduler {
         return executionOrder;
     }
 
+    // Non-preemptive priority scheduling with a real ready queue: processes enter a priority heap as they
+    // arrive, and whenever the CPU becomes free the best process that has arrived runs to completion.
+    public Timeline scheduleByArrival(List<Process> processes, int contextSwitchingTime) {
+        return scheduleWithReadyQueue(processes, contextSwitchingTime, false);
+    }
+
+    // Preemptive priority scheduling: like scheduleByArrival(...), but a process with a better (lower) priority
+    // arriving while another one runs takes the CPU, and the interrupted process goes back to the ready queue.
+    public Timeline schedulePreemptive(List<Process> processes, int contextSwitchingTime) {
+        return scheduleWithReadyQueue(processes, contextSwitchingTime, true);
+    }
+
+    // scheduleByArrival(...) directly on a process table; completion times go to the table
+    public Timeline scheduleByArrival(ProcessTable table, int contextSwitchingTime) {
+        return scheduleWithReadyQueue(table, contextSwitchingTime, false);
+    }
+
+    // schedulePreemptive(...) directly on a process table; completion times go to the table
+    public Timeline schedulePreemptive(ProcessTable table, int contextSwitchingTime) {
+        return scheduleWithReadyQueue(table, contextSwitchingTime, true);
+    }
+
+    // Runs the table version for a list of processes and copies the completion times back
+    private Timeline scheduleWithReadyQueue(List<Process> processes, int contextSwitchingTime, boolean preemptive) {
+        ProcessTable table = ProcessTable.fromProcesses(processes);
+        Timeline executionOrder = scheduleWithReadyQueue(table, contextSwitchingTime, preemptive);
+        for (int row = 0; row < table.size(); row++) {
+            processes.get(row).setCompletionTime(table.getCompletionTime(row));
+        }
+        return executionOrder;
+    }
+
+    // Shared by scheduleByArrival(...) and schedulePreemptive(...): PriorityPolicy on the simulation kernel
+    private Timeline scheduleWithReadyQueue(ProcessTable table, int contextSwitchingTime, boolean preemptive) {
+        return new SimulationKernel(new PriorityPolicy(preemptive)).run(table, contextSwitchingTime);
+    }
+
     // Prints the results of the scheduling algorithm.
     public void printResults(List<Process> processes, List<ProcessExecution> executionOrder) {
         // Display the order of execution
@@ -0,0 +1,65 @@
+package algorithms;
+
+import models.ProcessTable;
+
+// What a scheduling algorithm plugs into SimulationKernel: the ready queue and the decisions that depend on it.
+// Processes are table rows; the kernel keeps the clock, the events, the remaining times and the timeline.
+public interface ReadyQueuePolicy {
+
+    // Prepares the policy for a run over the given table (called before any other method). In a streaming
+    // run the table starts empty and rows are added, and reused after their process finished, as it goes.
+    void reset(ProcessTable table);
+
+    // Listener the policy reports its own decisions to (starvation, quantum changes), or null for none
+    default void setListener(SchedulingListener listener) {
+    }
+
+    // Whether the policy can run on a stream, i.e. does not need to see the whole workload in reset
+    default boolean supportsStreaming() {
+        return true;
+    }
+
+    // A process became ready: it just arrived, or it left the CPU without finishing
+    void add(int row, long now);
+
+    boolean isEmpty();
+
+    // Process the policy would run next, without removing it (-1 if the queue is empty)
+    int peek(long now);
+
+    // Removes and returns the process to run next (the queue must not be empty)
+    int select(long now);
+
+    // How long the selected process may run before the kernel calls continueAfterSlice
+    // (Long.MAX_VALUE = until it finishes)
+    default long timeSlice(int row, long now) {
+        return Long.MAX_VALUE;
+    }
+
+    // Whether a process that just arrived takes the CPU from the running one
+    // (the running process's remaining time in the table is up to date)
+    default boolean preempts(int arrived, int running, long now) {
+        return false;
+    }
+
+    // The time slice of the running process ran out after it ran for ran time units since it was selected;
+    // return true to keep it running (timeSlice is asked again) or false to send it back to the ready queue
+    default boolean continueAfterSlice(int row, long ran, long now) {
+        return false;
+    }
+
+    // The running process was preempted by an arrival after it ran for ran time units since it was selected
+    // (it is added back to the ready queue right after)
+    default void onPreempted(int row, long ran, long now) {
+    }
+
+    // The running process finished
+    default void onCompleted(int row, long now) {
+    }
+
+    // The process, just selected from this queue, is taken by another policy of the same class to run under
+    // it (MultiCoreKernel work stealing): hand over what the policy keeps for the process, as if the other
+    // policy had selected it, and forget it here. Nothing to do for state that is kept in the table.
+    default void migrate(int row, ReadyQueuePolicy to, long now) {
+    }
+}
@@ -0,0 +1,61 @@
+package algorithms;
+
+import models.ProcessTable;
+
+// Ready queue for Round Robin: processes run in the order they became ready, each for at most one quantum,
+// and a process whose quantum runs out goes to the back of the queue. Processes arriving at the moment a
+// quantum runs out are queued ahead of the process that used it. The queue is a ring buffer of table rows,
+// so queueing allocates nothing once the buffer has grown to the most processes ever waiting.
+public class RoundRobinPolicy implements ReadyQueuePolicy {
+    private final int quantum;  // Quantum of every process, 0 to use each process's own quantum
+    private ProcessTable table;
+    private IntRingBuffer ready;
+
+    // Every process runs for its own quantum (at least 1)
+    public RoundRobinPolicy() {
+        this.quantum = 0;
+    }
+
+    // Every process runs for the same quantum
+    public RoundRobinPolicy(int quantum) {
+        if (quantum < 1) {
+            throw new IllegalArgumentException("Quantum must be at least 1: " + quantum);
+        }
+        this.quantum = quantum;
+    }
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        if (ready == null) {
+            ready = new IntRingBuffer(16);
+        } else {
+            ready.clear();
+        }
+    }
+
+    @Override
+    public void add(int row, long now) {
+        ready.add(row);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ready.isEmpty();
+    }
+
+    @Override
+    public int peek(long now) {
+        return ready.isEmpty() ? -1 : ready.peek();
+    }
+
+    @Override
+    public int select(long now) {
+        return ready.poll();
+    }
+
+    @Override
+    public long timeSlice(int row, long now) {
+        return quantum > 0 ? quantum : Math.max(1, table.getQuantum(row));
+    }
+}
@@ -0,0 +1,87 @@
+package algorithms;
+
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+import models.Workload;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Reusable state for scheduler runs: a process table, a timeline, the metrics of the last run, a table for
+// streaming runs, and one simulation kernel (with its policy, heaps and event queue) per scheduler, plus one
+// multi-core kernel per scheduler run on several CPUs. Everything is reset between runs instead of being
+// reallocated, so repeated runs of the same workload allocate nothing once the arrays have grown.
+// A context is not thread-safe; use one per thread.
+public class RunContext {
+    private final ProcessTable table = new ProcessTable();
+    private final Timeline timeline = new Timeline(table);
+    private final ProcessTable streamTable = new ProcessTable(); // Waiting and running processes of a stream
+    private final RunStatistics statistics = new RunStatistics();  // Metrics of the last run
+    private final KernelCounters counters = new KernelCounters();  // Kernel counts of the last run
+    private final Map<Scheduler, SimulationKernel> kernels = new IdentityHashMap<>();
+    private final Map<Scheduler, MultiCoreKernel> multiCoreKernels = new IdentityHashMap<>();
+    private Workload loaded; // Workload currently in table
+    private SchedulingListener listener; // Listener of every run on this context, null for none
+
+    // Puts the workload in the context's table (skipped when it is already there) and returns the table
+    public ProcessTable load(Workload workload) {
+        if (workload != loaded) {
+            workload.copyInto(table);
+            loaded = workload;
+        }
+        return table;
+    }
+
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    // Timeline the next run records into
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    // Table streaming runs keep their waiting and running processes in
+    public ProcessTable getStreamTable() {
+        return streamTable;
+    }
+
+    // Metrics of the last run, streaming or not
+    public RunStatistics getStatistics() {
+        return statistics;
+    }
+
+    // What the kernel did in the last run: decisions, ready queue operations, preemptions and so on
+    public KernelCounters getCounters() {
+        return counters;
+    }
+
+    // Listener told about the events of later runs; null removes it. Use SchedulingListener.both to add one
+    // to the current listener.
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    public SchedulingListener getListener() {
+        return listener;
+    }
+
+    // Kernel kept for the given scheduler, or null if it has none yet
+    public SimulationKernel getKernel(Scheduler scheduler) {
+        return kernels.get(scheduler);
+    }
+
+    public void putKernel(Scheduler scheduler, SimulationKernel kernel) {
+        kernels.put(scheduler, kernel);
+    }
+
+    // Multi-core kernel kept for the given scheduler, or null if it has none yet
+    public MultiCoreKernel getMultiCoreKernel(Scheduler scheduler) {
+        return multiCoreKernels.get(scheduler);
+    }
+
+    public void putMultiCoreKernel(Scheduler scheduler, MultiCoreKernel kernel) {
+        multiCoreKernels.put(scheduler, kernel);
+    }
+}
@@ -0,0 +1,42 @@
+package algorithms;
+
+import models.ProcessSource;
+import models.RunStatistics;
+import models.Timeline;
+import models.Workload;
+
+// A scheduling algorithm that can be looked up in a SchedulerRegistry and run on any workload.
+// A run never changes the workload: it works on the process table of the given RunContext, and the
+// returned timeline (and the table it points into) belongs to that context until its next run.
+public interface Scheduler {
+
+    // Short unique identifier, e.g. "srtf"
+    String getId();
+
+    // Name shown to users, e.g. "Shortest Remaining Time First (SRTF)"
+    String getName();
+
+    // Whether the algorithm uses each process's quantum
+    default boolean usesQuantum() {
+        return false;
+    }
+
+    // Runs every process of the workload to completion; the run's metrics are left in context.getStatistics()
+    // and, for schedulers on the simulation kernel, its counts in context.getCounters()
+    Timeline schedule(Workload workload, int contextSwitchingTime, RunContext context);
+
+    // Runs every process the source supplies without keeping a timeline or the finished processes; the
+    // returned metrics belong to the context until its next run
+    default RunStatistics scheduleStream(ProcessSource source, int contextSwitchingTime, RunContext context) {
+        throw new UnsupportedOperationException(getName() + " cannot run on a stream of processes");
+    }
+
+    // Runs every process of the workload on several CPUs sharing one clock, spread over them as balancing
+    // says. The metrics of all cores together are left in context.getStatistics() and the kernel's counts in
+    // context.getCounters(); the returned kernel has the metrics and timeline of each core, until the
+    // context's next multi-core run of this scheduler.
+    default MultiCoreKernel scheduleMultiCore(Workload workload, int contextSwitchingTime, int cores,
+                                              MultiCoreKernel.LoadBalancing balancing, RunContext context) {
+        throw new UnsupportedOperationException(getName() + " cannot run on several CPUs");
+    }
+}
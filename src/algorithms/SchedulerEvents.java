@@ -0,0 +1,104 @@
+package algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Java Flight Recorder events of the simulation kernel, for profiling runs with the standard JDK tools, e.g.
+//     java -XX:StartFlightRecording:filename=run.jfr,settings=profile ...
+//     jfr print --events cpuscheduler.Decision run.jfr
+// They are recorded while a recording is running (a settings file can turn each one off). SimulationKernel
+// checks once per run whether each is enabled, so a run without a recording pays nothing for them.
+// Times in the fields are simulation times; the duration of a Decision is the wall-clock time the policy took.
+public class SchedulerEvents {
+    static final EventType DECISION = EventType.getEventType(Decision.class);
+    static final EventType PREEMPTION = EventType.getEventType(Preemption.class);
+    static final EventType CONTEXT_SWITCH = EventType.getEventType(ContextSwitch.class);
+    static final EventType STARVATION = EventType.getEventType(Starvation.class);
+    static final EventType QUANTUM_UPDATE = EventType.getEventType(QuantumUpdate.class);
+
+    private SchedulerEvents() {
+    }
+
+    @Name("cpuscheduler.Decision")
+    @Label("Scheduling Decision")
+    @Description("The ready queue policy picked the next process to run")
+    @Category({"CPU Scheduler Simulator"})
+    @StackTrace(false)
+    static final class Decision extends Event {
+        @Label("Simulation Time")
+        long simulationTime;
+
+        @Label("PID")
+        int pid;
+
+        @Label("Ready Queue Depth")
+        @Description("Processes in the ready queue before the decision")
+        int readyQueueDepth;
+    }
+
+    @Name("cpuscheduler.Preemption")
+    @Label("Preemption")
+    @Description("A running process was taken off the CPU before its slice ended")
+    @Category({"CPU Scheduler Simulator"})
+    @StackTrace(false)
+    static final class Preemption extends Event {
+        @Label("Simulation Time")
+        long simulationTime;
+
+        @Label("PID")
+        int pid;
+    }
+
+    @Name("cpuscheduler.ContextSwitch")
+    @Label("Context Switch")
+    @Description("The CPU started switching away from a process")
+    @Category({"CPU Scheduler Simulator"})
+    @StackTrace(false)
+    static final class ContextSwitch extends Event {
+        @Label("Simulation Time")
+        long simulationTime;
+
+        @Label("From PID")
+        int fromPid;
+
+        @Label("Switch Time")
+        int contextSwitchingTime;
+    }
+
+    @Name("cpuscheduler.Starvation")
+    @Label("Starvation Promotion")
+    @Description("A process that waited too long was picked ahead of its turn")
+    @Category({"CPU Scheduler Simulator"})
+    @StackTrace(false)
+    static final class Starvation extends Event {
+        @Label("Simulation Time")
+        long simulationTime;
+
+        @Label("PID")
+        int pid;
+    }
+
+    @Name("cpuscheduler.QuantumUpdate")
+    @Label("FCAI Quantum Update")
+    @Description("The quantum of a process changed at the end of one of its runs")
+    @Category({"CPU Scheduler Simulator"})
+    @StackTrace(false)
+    static final class QuantumUpdate extends Event {
+        @Label("Simulation Time")
+        long simulationTime;
+
+        @Label("PID")
+        int pid;
+
+        @Label("Old Quantum")
+        int oldQuantum;
+
+        @Label("New Quantum")
+        int newQuantum;
+    }
+}
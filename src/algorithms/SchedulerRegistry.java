@@ -0,0 +1,69 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Available schedulers by id, in the order they were registered (which is the order menus show them in)
+public class SchedulerRegistry {
+    private final Map<String, Scheduler> schedulers = new LinkedHashMap<>();
+
+    // Registry with every scheduler of this package: the kernel policies, then the original SRTF and FCAI
+    // engines (LegacyScheduler)
+    public static SchedulerRegistry defaults() {
+        SchedulerRegistry registry = new SchedulerRegistry();
+        registry.register(new KernelScheduler("priority", "Non-preemptive Priority Scheduling", false,
+                () -> new PriorityPolicy(false)));
+        registry.register(new KernelScheduler("sjf", "Non-preemptive Shortest Job First (SJF)", false,
+                ShortestJobFirstPolicy::new));
+        registry.register(new KernelScheduler("srtf", "Shortest Remaining Time First (SRTF)", false,
+                ShortestRemainingTimeFirstPolicy::new));
+        registry.register(new KernelScheduler("fcai", "FCAI Scheduling", true, FCAIPolicy::new));
+        registry.register(new KernelScheduler("priority-preemptive", "Preemptive Priority Scheduling", false,
+                () -> new PriorityPolicy(true)));
+        registry.register(new KernelScheduler("mlfq", "Multi-Level Feedback Queue (MLFQ)", false,
+                MultilevelFeedbackQueuePolicy::new));
+        registry.register(new KernelScheduler("cfs", "Completely Fair Scheduler (CFS)", false,
+                CompletelyFairPolicy::new));
+        registry.register(new KernelScheduler("rr", "Round Robin (RR)", true, RoundRobinPolicy::new));
+
+        // The original engines, with their own context switching and starvation rules
+        registry.register(new LegacyScheduler("srtf-legacy", "Shortest Remaining Time First (SRTF, original)",
+                false, (table, contextSwitchingTime, listener) -> {
+                    ShortestRemainingTimeFirstScheduler scheduler = new ShortestRemainingTimeFirstScheduler();
+                    scheduler.setListener(listener);
+                    return scheduler.scheduleEventDriven(table, contextSwitchingTime);
+                }));
+        registry.register(new LegacyScheduler("fcai-legacy", "FCAI Scheduling (original)", true,
+                FCAIScheduler::scheduleIndexed));
+        return registry;
+    }
+
+    // Adds a scheduler; its id must not be taken yet
+    public void register(Scheduler scheduler) {
+        if (schedulers.containsKey(scheduler.getId())) {
+            throw new IllegalArgumentException("A scheduler with id " + scheduler.getId() + " is already registered");
+        }
+        schedulers.put(scheduler.getId(), scheduler);
+    }
+
+    // Scheduler with the given id
+    public Scheduler get(String id) {
+        Scheduler scheduler = schedulers.get(id);
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Unknown scheduler: " + id);
+        }
+        return scheduler;
+    }
+
+    public boolean contains(String id) {
+        return schedulers.containsKey(id);
+    }
+
+    // Every registered scheduler, in registration order
+    public List<Scheduler> getSchedulers() {
+        return Collections.unmodifiableList(new ArrayList<>(schedulers.values()));
+    }
+}
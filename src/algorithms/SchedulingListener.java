@@ -0,0 +1,80 @@
+package algorithms;
+
+// Receives the decisions of a scheduler as it runs. Every method does nothing by default, so a listener only
+// overrides the events it needs. Events carry primitives only and are delivered on the scheduling thread, so
+// a listener should hand anything slow (such as I/O) to another thread; see AsyncLogListener.
+// A scheduler without a listener skips the events entirely.
+public interface SchedulingListener {
+
+    // A process was put on the CPU
+    default void onSliceStart(int pid, long time) {
+    }
+
+    // A process came off the CPU after running for duration from start, whatever ended the slice (a run
+    // merged into the previous one by the timeline is still reported on its own)
+    default void onSliceEnd(int pid, long start, long duration) {
+    }
+
+    // A running process was taken off the CPU by an arriving process
+    default void onPreempted(int pid, long time) {
+    }
+
+    // A process finished
+    default void onCompleted(int pid, long time) {
+    }
+
+    // A process waited too long and was picked ahead of its turn
+    default void onStarved(int pid, long time) {
+    }
+
+    // The quantum of a process changed at the end of one of its runs
+    default void onQuantumChanged(int pid, int oldQuantum, int newQuantum, long time) {
+    }
+
+    // Listener passing every event to first and then to second; either may be null
+    static SchedulingListener both(SchedulingListener first, SchedulingListener second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return new SchedulingListener() {
+            @Override
+            public void onSliceStart(int pid, long time) {
+                first.onSliceStart(pid, time);
+                second.onSliceStart(pid, time);
+            }
+
+            @Override
+            public void onSliceEnd(int pid, long start, long duration) {
+                first.onSliceEnd(pid, start, duration);
+                second.onSliceEnd(pid, start, duration);
+            }
+
+            @Override
+            public void onPreempted(int pid, long time) {
+                first.onPreempted(pid, time);
+                second.onPreempted(pid, time);
+            }
+
+            @Override
+            public void onCompleted(int pid, long time) {
+                first.onCompleted(pid, time);
+                second.onCompleted(pid, time);
+            }
+
+            @Override
+            public void onStarved(int pid, long time) {
+                first.onStarved(pid, time);
+                second.onStarved(pid, time);
+            }
+
+            @Override
+            public void onQuantumChanged(int pid, int oldQuantum, int newQuantum, long time) {
+                first.onQuantumChanged(pid, oldQuantum, newQuantum, time);
+                second.onQuantumChanged(pid, oldQuantum, newQuantum, time);
+            }
+        };
+    }
+}
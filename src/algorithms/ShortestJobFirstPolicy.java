@@ -0,0 +1,98 @@
+package algorithms;
+
+import models.ProcessTable;
+
+import java.util.Arrays;
+
+// Ready queue for non-preemptive Shortest Job First with the starvation rule of ShortestJobFirstScheduler:
+// a process whose waiting time is above MAX_WAIT_TIME goes first, otherwise the shortest burst.
+// Ties are broken by the order schedule() sorts the processes in: arrival time, burst time, priority,
+// then the order they were added in (table order for processes arriving together).
+public class ShortestJobFirstPolicy implements ReadyQueuePolicy {
+    private ProcessTable table;
+    private long[] addedAt = new long[0]; // Sequence number of each row's add
+    private long sequence;
+    private IndexedMinHeap shortest;      // Ready processes by burst time
+    private IndexedMinHeap deadlines;     // Ready processes by the time they starve (arrival + burst + MAX_WAIT_TIME)
+    private IndexedMinHeap starved;       // Starved processes in sorted order
+    private SchedulingListener listener;  // Told when a starved process is picked (null for none)
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        int n = processTable.size();
+        if (addedAt.length < n) {
+            addedAt = new long[n];
+        }
+        sequence = 0;
+        if (shortest == null) {
+            shortest = new IndexedMinHeap(n, (a, b) -> {
+                int compare = Integer.compare(table.getBurstTime(a), table.getBurstTime(b));
+                return compare != 0 ? compare : compareSorted(a, b);
+            });
+            deadlines = new IndexedMinHeap(n, (a, b) -> {
+                int compare = Long.compare(starvesAfter(a), starvesAfter(b));
+                return compare != 0 ? compare : compareSorted(a, b);
+            });
+            starved = new IndexedMinHeap(n, this::compareSorted);
+        } else {
+            shortest.clear();
+            deadlines.clear();
+            starved.clear();
+        }
+    }
+
+    @Override
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void add(int row, long now) {
+        if (row >= addedAt.length) {
+            addedAt = Arrays.copyOf(addedAt, Math.max(row + 1, addedAt.length * 2));
+        }
+        addedAt[row] = sequence++;
+        shortest.add(row);
+        if (table.getBurstTime(row) > 0) {
+            deadlines.add(row);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return shortest.isEmpty();
+    }
+
+    @Override
+    public int peek(long now) {
+        // Processes whose waiting time is now above MAX_WAIT_TIME become starved
+        while (!deadlines.isEmpty() && now - starvesAfter(deadlines.peek()) > ShortestJobFirstScheduler.MAX_WAIT_TIME) {
+            starved.add(deadlines.poll());
+        }
+        return starved.isEmpty() ? shortest.peek() : starved.peek();
+    }
+
+    @Override
+    public int select(long now) {
+        int selected = peek(now);
+        shortest.remove(selected);
+        deadlines.remove(selected);
+        if (starved.remove(selected) && listener != null) {
+            listener.onStarved(table.getPid(selected), now);
+        }
+        return selected;
+    }
+
+    // Order of schedule()'s sorted list
+    private int compareSorted(int a, int b) {
+        int compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+        if (compare == 0) compare = Integer.compare(table.getBurstTime(a), table.getBurstTime(b));
+        if (compare == 0) compare = Integer.compare(table.getPriority(a), table.getPriority(b));
+        return compare != 0 ? compare : Long.compare(addedAt[a], addedAt[b]);
+    }
+
+    private long starvesAfter(int row) {
+        return (long) table.getArrivalTime(row) + table.getBurstTime(row);
+    }
+}
@@ -1,7 +1,8 @@
 package algorithms;
 
 import models.Process;
-import models.ProcessExecution;
+import models.ProcessTable;
+import models.Timeline;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -17,30 +18,37 @@ public class ShortestJobFirstScheduler {
     private int contextSwitchTime;
 
     // Maximum allowed waiting time to prevent process starvation
-    private static final int MAX_WAIT_TIME = 20;
+    static final int MAX_WAIT_TIME = 20;
 
     // List to store the execution order of processes
     private List<Process> executionOrder;
 
+    // Told about every process as it runs, null for none
+    private SchedulingListener listener;
+
     // Constructor to initialize the process list and context switching time
     public ShortestJobFirstScheduler(List<Process> processList, int contextSwitchTime) {
         this.processList = processList;
         this.contextSwitchTime = contextSwitchTime;
     }
 
+    // Listener told about the slices, starvation and completions of later runs; null removes it
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
     // Schedules the processes using the Shortest Job First (SJF) scheduling algorithm.
-    public List<ProcessExecution> schedule() {
+    // Prints nothing; printResults() prints the report afterwards.
+    public Timeline schedule() {
         // Sort processes by arrival time, burst time, and priority as a tie-breaker
         processList.sort(Comparator.comparingInt(Process::getArrivalTime)
                 .thenComparingInt(Process::getBurstTime)
                 .thenComparing(Process::getPriority));
 
         int currentTime = 0;
-        int totalWaitingTime = 0;
-        int totalTurnaroundTime = 0;
 
         executionOrder = new ArrayList<>();
-        List<ProcessExecution> executionOrder2 = new ArrayList<>();
+        Timeline executionOrder2 = new Timeline(processList);
         boolean isFirstProcess = true; // Flag to handle special case for the first process
 
         while (!processList.isEmpty()) {
@@ -71,7 +79,9 @@ public class ShortestJobFirstScheduler {
             Process selectedProcess;
             if (starvedProcess != null) {
                 // Handle starvation by prioritizing the starved process
-                System.out.println("Process " + starvedProcess.getName() + " starved! Executing immediately.");
+                if (listener != null) {
+                    listener.onStarved(starvedProcess.getPid(), currentTime);
+                }
                 selectedProcess = starvedProcess;
             } else {
                 // Select the process with the shortest burst time
@@ -88,50 +98,79 @@ public class ShortestJobFirstScheduler {
             executionOrder.add(selectedProcess);
 
             // Add execution details to the visualization list
-            executionOrder2.add(new ProcessExecution(
-                    selectedProcess.getName(),
-                    selectedProcess.getBurstTime(),
-                    selectedProcess.getColor(),
-                    selectedProcess.getPid(),
-                    selectedProcess.getPriority(),
-                    currentTime // Start time of the process
-            ));
+            executionOrder2.append(selectedProcess, currentTime, selectedProcess.getBurstTime());
+            if (listener != null) {
+                listener.onSliceStart(selectedProcess.getPid(), currentTime);
+            }
 
             // Simulate process execution and update completion time
             int completionTime = currentTime + selectedProcess.getBurstTime();
             selectedProcess.setCompletionTime(completionTime);
 
+            if (listener != null) {
+                listener.onCompleted(selectedProcess.getPid(), completionTime);
+            }
+
             // Update current time to include burst time and context switching
             currentTime = completionTime + contextSwitchTime;
+        }
+
+        // Return the execution details for visualization
+        return executionOrder2;
+    }
 
-            // Calculate waiting and turnaround times
-            int waitingTime = selectedProcess.getWaitingTime(completionTime);
-            int turnaroundTime = selectedProcess.getTurnaroundTime(completionTime);
+    // Heap-based version of schedule(): picks the same processes in the same order, but keeps the arrived
+    // processes in a heap by burst time and their starvation deadlines in a second heap, and jumps over idle
+    // periods to the next arrival. Does not print and does not modify the process list it was given.
+    public Timeline scheduleHeap() {
+        ProcessTable table = ProcessTable.fromProcesses(processList);
+        executionOrder = new ArrayList<>();
+        return runHeap(table, contextSwitchTime, processList, executionOrder, listener);
+    }
+
+    // Same as scheduleHeap(), running directly on a process table; completion times go to the table
+    public static Timeline scheduleHeap(ProcessTable table, int contextSwitchTime) {
+        return runHeap(table, contextSwitchTime, null, null, null);
+    }
 
-            // Accumulate total waiting and turnaround times
-            totalWaitingTime += waitingTime;
-            totalTurnaroundTime += turnaroundTime;
+    // Runs ShortestJobFirstPolicy on the simulation kernel; when processes is given (row i = processes.get(i))
+    // their completion times are set and they are added to executed in the order they run
+    private static Timeline runHeap(ProcessTable table, int contextSwitchTime, List<Process> processes,
+                                    List<Process> executed, SchedulingListener listener) {
+        ReadyQueuePolicy policy = processes == null ? new ShortestJobFirstPolicy() : new ShortestJobFirstPolicy() {
+            @Override
+            public int select(long now) {
+                int selected = super.select(now);
+                executed.add(processes.get(selected));
+                return selected;
+            }
+        };
+        SimulationKernel kernel = new SimulationKernel(policy);
+        kernel.setListener(listener);
+        Timeline executionOrder2 = kernel.run(table, contextSwitchTime);
+        if (processes != null) {
+            for (int row = 0; row < table.size(); row++) {
+                processes.get(row).setCompletionTime(table.getCompletionTime(row));
+            }
+        }
+        return executionOrder2;
+    }
 
-            // Print process execution details
-            System.out.println("Executed Process: " + selectedProcess.getName());
-            System.out.println("Waiting Time: " + waitingTime);
-            System.out.println("Turnaround Time: " + turnaroundTime);
+    // Prints each executed process with its waiting and turnaround time, the averages and the execution order
+    public void printResults() {
+        for (Process process : executionOrder) {
+            System.out.println("Executed Process: " + process.getName());
+            System.out.println("Waiting Time: " + process.getWaitingTime(process.getCompletionTime()));
+            System.out.println("Turnaround Time: " + process.getTurnaroundTime(process.getCompletionTime()));
             System.out.println("---------------------------");
         }
 
-        // Print average waiting time
         System.out.println("Average Waiting Time: " + calculateAverageWaitingTime());
-
-        // Print average turnaround time
         System.out.println("Average Turnaround Time: " + calculateAverageTurnaroundTime());
 
-        // Print execution order
         System.out.println("Execution Order: ");
         executionOrder.forEach(p -> System.out.print(p.getName() + " -> "));
         System.out.println("End");
-
-        // Return the execution details for visualization
-        return executionOrder2;
     }
 
     // Calculates the average waiting time for all executed processes.
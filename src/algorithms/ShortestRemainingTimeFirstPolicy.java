@@ -0,0 +1,112 @@
+package algorithms;
+
+import models.ProcessTable;
+
+import java.util.Arrays;
+
+// Ready queue for Shortest Remaining Time First: shortest remaining time first, then earlier arrival, then
+// lower PID, and an arriving process with a shorter remaining time takes the CPU. Starvation uses the same
+// waiting time as ShortestRemainingTimeFirstScheduler (time - arrival - remaining): a process above
+// MAX_WAIT_TIME is picked first at the next decision and then runs to completion without being preempted.
+public class ShortestRemainingTimeFirstPolicy implements ReadyQueuePolicy {
+    private ProcessTable table;
+    private IndexedMinHeap ready;     // Ready processes by remaining time
+    private IndexedMinHeap deadlines; // Ready processes by arrival + remaining (fixed while they wait)
+    private IndexedMinHeap starved;   // Starved processes by arrival time, then PID
+    private boolean[] runningStarved = new boolean[0]; // By row: picked because it starved (valid while it runs)
+    private SchedulingListener listener; // Told when a starved process is picked (null for none)
+
+    @Override
+    public void reset(ProcessTable processTable) {
+        this.table = processTable;
+        int n = processTable.size();
+        if (runningStarved.length < n) {
+            runningStarved = new boolean[n];
+        }
+        if (ready == null) {
+            ready = new IndexedMinHeap(n, this::compare);
+            deadlines = new IndexedMinHeap(n, (a, b) -> {
+                int compare = Long.compare(starvesAfter(a), starvesAfter(b));
+                return compare != 0 ? compare : Integer.compare(a, b);
+            });
+            starved = new IndexedMinHeap(n, (a, b) -> {
+                int compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+                if (compare == 0) compare = Integer.compare(table.getPid(a), table.getPid(b));
+                return compare != 0 ? compare : Integer.compare(a, b);
+            });
+        } else {
+            ready.clear();
+            deadlines.clear();
+            starved.clear();
+        }
+    }
+
+    @Override
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void add(int row, long now) {
+        ready.add(row);
+        if (table.getRemainingTime(row) > 0) {
+            deadlines.add(row);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ready.isEmpty();
+    }
+
+    @Override
+    public int peek(long now) {
+        while (!deadlines.isEmpty()
+                && now - starvesAfter(deadlines.peek()) > ShortestRemainingTimeFirstScheduler.MAX_WAIT_TIME) {
+            starved.add(deadlines.poll());
+        }
+        return starved.isEmpty() ? ready.peek() : starved.peek();
+    }
+
+    @Override
+    public int select(long now) {
+        int selected = peek(now);
+        if (selected >= runningStarved.length) {
+            runningStarved = Arrays.copyOf(runningStarved, Math.max(selected + 1, runningStarved.length * 2));
+        }
+        runningStarved[selected] = starved.remove(selected);
+        if (runningStarved[selected] && listener != null) {
+            listener.onStarved(table.getPid(selected), now);
+        }
+        ready.remove(selected);
+        deadlines.remove(selected);
+        return selected;
+    }
+
+    // A starved process still runs to completion
+    @Override
+    public void migrate(int row, ReadyQueuePolicy to, long now) {
+        ShortestRemainingTimeFirstPolicy other = (ShortestRemainingTimeFirstPolicy) to;
+        if (row >= other.runningStarved.length) {
+            other.runningStarved = Arrays.copyOf(other.runningStarved,
+                    Math.max(row + 1, other.runningStarved.length * 2));
+        }
+        other.runningStarved[row] = runningStarved[row];
+    }
+
+    @Override
+    public boolean preempts(int arrived, int running, long now) {
+        return !runningStarved[running] && compare(arrived, running) < 0;
+    }
+
+    private int compare(int a, int b) {
+        int compare = Integer.compare(table.getRemainingTime(a), table.getRemainingTime(b));
+        if (compare == 0) compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+        if (compare == 0) compare = Integer.compare(table.getPid(a), table.getPid(b));
+        return compare != 0 ? compare : Integer.compare(a, b);
+    }
+
+    private long starvesAfter(int row) {
+        return (long) table.getArrivalTime(row) + table.getRemainingTime(row);
+    }
+}
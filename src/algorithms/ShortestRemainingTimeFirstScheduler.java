@@ -2,8 +2,11 @@ package algorithms;
 
 import models.Process;
 import models.ProcessExecution;
+import models.ProcessTable;
+import models.Timeline;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 
@@ -14,14 +17,25 @@ public class ShortestRemainingTimeFirstScheduler {
     // List to store the order of process execution
     public List<Process> executionOrder2 = new ArrayList<>();
 
+    // Told about starved processes, null for none
+    private SchedulingListener listener;
+
+    // Listener told when a starved process is run ahead of its turn in later runs; null removes it
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
     // Schedules processes based on Shortest Remaining Time First (SRTF) algorithm
-    public List<ProcessExecution> schedule(List<Process> processes, int contextSwitchingTime) {
+    public Timeline schedule(List<Process> processes, int contextSwitchingTime) {
         // Sort processes by arrival time initially to handle them in the order they arrive
         processes.sort((p1, p2) -> Integer.compare(p1.getArrivalTime(), p2.getArrivalTime()));
 
-        // Priority queue to hold processes, sorted by burst time (shortest first)
-        PriorityQueue<Process> queue = new PriorityQueue<>((p1, p2) -> Integer.compare(p1.getBurstTime(), p2.getBurstTime()));
-        List<ProcessExecution> executionOrder = new ArrayList<>();
+        // Priority queue to hold processes, sorted by burst time (shortest first),
+        // ties go to the earlier arrival and then the lower PID so runs are reproducible
+        PriorityQueue<Process> queue = new PriorityQueue<>(Comparator.comparingInt(Process::getBurstTime)
+                .thenComparingInt(Process::getArrivalTime)
+                .thenComparingInt(Process::getPid));
+        Timeline executionOrder = new Timeline(processes);
 
         int currentTime = 0;  // Current time in the simulation
         int completed = 0;    // Count of completed processes
@@ -41,12 +55,14 @@ public class ShortestRemainingTimeFirstScheduler {
 
                 // Handle starved processes (waiting too long)
                 if (process.getWaitingTime(currentTime) > MAX_WAIT_TIME && process.getBurstTime() > 0) {
-                    System.out.println("Process " + process.getName() + " starved! Executing immediately.");
+                    if (listener != null) {
+                        listener.onStarved(process.getPid(), currentTime);
+                    }
                     currentTime += contextSwitchingTime;  // Add context switch time
                     currentTime += process.getBurstTime(); // Process completes its execution
                     process.setBurstTime(0);               // Mark the process as completed
                     process.setCompletionTime(currentTime); // Set completion time
-                    executionOrder.add(new ProcessExecution(process.getName(), 1, process.getColor(), process.getPid(), process.getPriority(), currentTime));
+                    executionOrder.append(process, currentTime, 1);
                     executionOrder2.add(process);
                     completed++; // Increment the completed count
                     queue.remove(process); // Remove the process from the queue
@@ -68,15 +84,9 @@ public class ShortestRemainingTimeFirstScheduler {
                 currentTime += contextSwitchingTime; // Add context switch time
             }
 
-            // Log the execution of the current process
-            executionOrder.add(new ProcessExecution(
-                    currentProcess.getName(),
-                    1, // Each unit of execution is 1 time unit
-                    currentProcess.getColor(),
-                    currentProcess.getPid(),
-                    currentProcess.getPriority(),
-                    currentTime
-            ));
+            // Log the execution of the current process (each unit of execution is 1 time unit,
+            // the timeline merges consecutive units of the same process)
+            executionOrder.append(currentProcess, currentTime, 1);
 
             // Execute one time unit for the current process
             currentProcess.setBurstTime(currentProcess.getBurstTime() - 1);
@@ -98,6 +108,179 @@ public class ShortestRemainingTimeFirstScheduler {
         return executionOrder;
     }
 
+    // Event-driven version of schedule(...): gives the same completion times, but instead of stepping the clock
+    // one unit at a time it jumps straight to the next arrival, completion, preemption or starvation.
+    // Consecutive units of the same process are reported as one run in the timeline.
+    public Timeline scheduleEventDriven(List<Process> processes, int contextSwitchingTime) {
+        ProcessTable table = ProcessTable.fromProcesses(processes);
+        return runEventDriven(table, contextSwitchingTime, processes);
+    }
+
+    // Same as scheduleEventDriven(List, int), running directly on a process table. Completion times are
+    // written to the table; rows with equal arrival times are scanned in table order.
+    public Timeline scheduleEventDriven(ProcessTable table, int contextSwitchingTime) {
+        return runEventDriven(table, contextSwitchingTime, null);
+    }
+
+    // SRTF on the shared simulation kernel (ShortestRemainingTimeFirstPolicy). Unlike schedule(...), a context
+    // switch is paid after every completion and the next process is chosen once it is done, and starvation is
+    // checked when a process is chosen instead of on every tick.
+    public static Timeline scheduleOnKernel(ProcessTable table, int contextSwitchingTime) {
+        return new SimulationKernel(new ShortestRemainingTimeFirstPolicy()).run(table, contextSwitchingTime);
+    }
+
+    // Event loop behind both scheduleEventDriven(...) methods; when processes is given (row i = processes.get(i))
+    // the matching Process objects are updated and recorded in executionOrder2 as they complete
+    private Timeline runEventDriven(ProcessTable table, int contextSwitchingTime, List<Process> processes) {
+        table.resetState();
+        int n = table.size();
+
+        // Rows in the stable arrival order schedule(...) scans in, and each row's place in that order
+        int[] arrivalOrder = table.arrivalOrder();
+        int[] scanPosition = new int[n];
+        for (int i = 0; i < n; i++) {
+            scanPosition[arrivalOrder[i]] = i;
+        }
+
+        // Ready processes ordered like the queue in schedule(...): remaining time, arrival time, PID
+        IndexedMinHeap ready = new IndexedMinHeap(n, (a, b) -> {
+            int compare = Integer.compare(table.getRemainingTime(a), table.getRemainingTime(b));
+            if (compare == 0) compare = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+            if (compare == 0) compare = Integer.compare(table.getPid(a), table.getPid(b));
+            return compare;
+        });
+        // Ready processes ordered by the first time they count as starved (waiting time > MAX_WAIT_TIME)
+        IndexedMinHeap deadlines = new IndexedMinHeap(n, (a, b) -> {
+            int compare = Long.compare(starvedFrom(table, a), starvedFrom(table, b));
+            return compare != 0 ? compare : Integer.compare(scanPosition[a], scanPosition[b]);
+        });
+        // Starved processes still to be handled by the current scan, and ones the scan has already passed
+        IndexedMinHeap pending = new IndexedMinHeap(n, (a, b) -> Integer.compare(scanPosition[a], scanPosition[b]));
+        IndexedMinHeap deferred = new IndexedMinHeap(n, (a, b) -> Integer.compare(scanPosition[a], scanPosition[b]));
+
+        Timeline executionOrder = new Timeline(table);
+        int currentTime = 0;  // Current time in the simulation
+        int completed = 0;    // Count of completed processes
+        int nextArrival = 0;  // Cursor into arrivalOrder: everything before it has already arrived
+        int lastProcess = -1; // Last executed process (for context switching), -1 after an idle period
+
+        while (completed < n) {
+            // Scan step: same effect as the for-loop in schedule(...), which walks the processes in arrival
+            // order, admits new arrivals and runs any starved process to completion on the spot
+            while (!deferred.isEmpty()) {
+                pending.add(deferred.poll());
+            }
+            int scanned = -1; // Position the scan has reached
+            while (true) {
+                // Admit every process that has arrived by now
+                while (nextArrival < n && table.getArrivalTime(arrivalOrder[nextArrival]) <= currentTime) {
+                    int arrived = arrivalOrder[nextArrival++];
+                    if (table.getRemainingTime(arrived) == 0) {
+                        // Nothing to run, the process finishes as soon as it arrives
+                        finish(table, arrived, table.getArrivalTime(arrived), processes);
+                        completed++;
+                    } else {
+                        ready.add(arrived);
+                        deadlines.add(arrived);
+                    }
+                }
+
+                // Processes that starved by now are handled in this scan if it has not passed them yet
+                while (!deadlines.isEmpty() && starvedFrom(table, deadlines.peek()) <= currentTime) {
+                    int starved = deadlines.poll();
+                    (scanPosition[starved] > scanned ? pending : deferred).add(starved);
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                // Run the starved process to completion, after a context switch
+                int starved = pending.poll();
+                scanned = scanPosition[starved];
+                if (listener != null) {
+                    listener.onStarved(table.getPid(starved), currentTime);
+                }
+                currentTime += contextSwitchingTime;
+                executionOrder.append(starved, currentTime, table.getRemainingTime(starved));
+                currentTime += table.getRemainingTime(starved);
+                table.setRemainingTime(starved, 0);
+                ready.remove(starved);
+                finish(table, starved, currentTime, processes);
+                completed++;
+            }
+
+            // Nothing ready: jump to the next arrival instead of counting idle units
+            if (ready.isEmpty()) {
+                if (nextArrival < n) {
+                    currentTime = table.getArrivalTime(arrivalOrder[nextArrival]);
+                }
+                lastProcess = -1;
+                continue;
+            }
+
+            // Pick the process with the shortest remaining time
+            int current = ready.peek();
+            if (lastProcess != -1 && lastProcess != current) {
+                currentTime += contextSwitchingTime; // Add context switch time
+            }
+
+            // Run it until the next event: it finishes, something arrives, or someone starves
+            deadlines.remove(current);
+            int runTime = table.getRemainingTime(current);
+            if (nextArrival < n) {
+                int untilArrival = table.getArrivalTime(arrivalOrder[nextArrival]) - currentTime;
+                runTime = Math.min(runTime, Math.max(1, untilArrival));
+            }
+            if (!deferred.isEmpty()) {
+                runTime = 1; // A starved process is already waiting for the next scan
+            }
+            if (!deadlines.isEmpty()) {
+                long waitingLimit = starvedFrom(table, deadlines.peek()) - currentTime;
+                runTime = (int) Math.min(runTime, Math.max(1, waitingLimit));
+            }
+            // The running process itself counts as waiting: each unit adds one to the clock and removes one
+            // from its remaining time, so its waiting time grows by two per unit
+            long ownSlack = (long) MAX_WAIT_TIME + table.getArrivalTime(current) + table.getRemainingTime(current)
+                    - currentTime;
+            runTime = (int) Math.min(runTime, Math.max(1, Math.floorDiv(ownSlack, 2) + 1));
+
+            executionOrder.append(current, currentTime, runTime);
+            table.setRemainingTime(current, table.getRemainingTime(current) - runTime);
+            currentTime += runTime;
+
+            if (table.getRemainingTime(current) == 0) {
+                ready.remove(current);
+                deferred.remove(current);
+                finish(table, current, currentTime, processes);
+                completed++;
+            } else {
+                ready.update(current);
+                if (!deferred.contains(current)) {
+                    deadlines.add(current);
+                }
+            }
+            lastProcess = current;
+        }
+
+        return executionOrder;
+    }
+
+    // First time at which a row, with its current remaining time, has waited more than MAX_WAIT_TIME
+    private static long starvedFrom(ProcessTable table, int row) {
+        return (long) table.getArrivalTime(row) + table.getRemainingTime(row) + MAX_WAIT_TIME + 1;
+    }
+
+    // Marks a row as completed, and its Process (if there is one) as completed in the execution order
+    private void finish(ProcessTable table, int row, int completionTime, List<Process> processes) {
+        table.setCompletionTime(row, completionTime);
+        if (processes != null) {
+            Process process = processes.get(row);
+            process.setBurstTime(0);
+            process.setCompletionTime(completionTime);
+            executionOrder2.add(process);
+        }
+    }
+
     // Prints the execution order and calculates average waiting and turnaround times
     public void printResults(List<Process> processes, List<ProcessExecution> executionOrder) {
         // Print the order of process execution
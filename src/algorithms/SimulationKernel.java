@@ -0,0 +1,463 @@
+package algorithms;
+
+import models.ProcessSource;
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+
+import java.util.Arrays;
+
+// Discrete-event simulation of one CPU, shared by every scheduling algorithm. The kernel owns the clock,
+// the event queue (arrival, completion, quantum-expiry and context-switch-done events), the remaining
+// times and the timeline; the algorithm only supplies a ReadyQueuePolicy. The clock jumps from event to
+// event, so idle periods and long runs cost nothing.
+//
+// Context switching cost model: a switch takes contextSwitchingTime and is paid whenever the CPU is handed
+// from one process to another, i.e. after every completion, and after a preemption or an expired time slice
+// unless the same process is picked again. The switch starts as soon as the previous process leaves the CPU
+// and overlaps any idle time that follows; the next process is chosen when the switch is done, so processes
+// arriving during the switch are taken into account.
+//
+// Every run keeps KernelCounters, and emits the SchedulerEvents of a Java Flight Recorder recording that
+// enables them.
+public class SimulationKernel {
+    private final ReadyQueuePolicy policy;
+    private final EventQueue events = new EventQueue();
+    private final KernelCounters counters = new KernelCounters();
+    private final SchedulingListener policyEvents = new PolicyEvents(); // What the policy reports to
+    private SchedulingListener listener;   // Null when nobody listens
+    private int readyQueueDepth;           // Processes in the ready queue
+
+    // Flight Recorder events enabled for the current run
+    private boolean recordDecisions;
+    private boolean recordPreemptions;
+    private boolean recordContextSwitches;
+    private boolean recordStarvation;
+    private boolean recordQuantumUpdates;
+
+    // State of the current run
+    private ProcessTable table;
+    private Timeline timeline;             // Where runs are recorded (null when streaming)
+    private RunStatistics statistics;      // Metrics of the run (null if not wanted)
+    private int[] arrivalOrder = new int[0]; // Rows in the order they arrive (first processCount entries)
+    private long[] arrivalKeys = new long[0]; // Scratch space for sorting arrivalOrder
+    private int processCount;
+    private int nextArrival;       // Cursor into arrivalOrder
+
+    // Streaming runs: processes come from a source and the rows of finished processes are reused
+    private ProcessSource source;
+    private int pendingRow;        // Next process from the source, loaded but not arrived yet (-1 if none)
+    private int[] freeRows = new int[16];
+    private int freeCount;
+    private int contextSwitchingTime;
+    private boolean switching;     // A context switch is in progress
+    private int running;           // Row on the CPU, -1 if none
+    private long selectedAt;       // Time the running process was selected
+    private long phaseStart;       // Start of the current time slice
+    private int remainingAtPhase;  // Remaining time of the running process at phaseStart
+    private long cpuEventTime;     // Time of the pending completion or quantum expiry
+    private long cpuEventStamp;    // Stamp of that event; older CPU events are stale
+
+    public SimulationKernel(ReadyQueuePolicy policy) {
+        this.policy = policy;
+        policy.setListener(policyEvents);
+    }
+
+    public ReadyQueuePolicy getPolicy() {
+        return policy;
+    }
+
+    // Listener told about every slice, preemption and completion of later runs (and about the policy's own
+    // decisions); null removes it
+    public void setListener(SchedulingListener listener) {
+        this.listener = listener;
+    }
+
+    public SchedulingListener getListener() {
+        return listener;
+    }
+
+    // Counts of the last run (reset when the next one starts)
+    public KernelCounters getCounters() {
+        return counters;
+    }
+
+    // Runs every process in the table to completion; remaining and completion times go to the table
+    public Timeline run(ProcessTable table, int contextSwitchingTime) {
+        return run(table, contextSwitchingTime, new Timeline(table));
+    }
+
+    // Same as run(table, contextSwitchingTime), recording into the given timeline (cleared first), which must
+    // belong to the table. The kernel keeps its arrays between runs, so running again allocates nothing.
+    public Timeline run(ProcessTable table, int contextSwitchingTime, Timeline timeline) {
+        return run(table, contextSwitchingTime, timeline, null);
+    }
+
+    // Same as run(table, contextSwitchingTime, timeline), also accumulating the run's metrics into statistics
+    // (reset first) as processes complete
+    public Timeline run(ProcessTable table, int contextSwitchingTime, Timeline timeline, RunStatistics statistics) {
+        if (timeline.getTable() != table) {
+            throw new IllegalArgumentException("The timeline belongs to a different process table");
+        }
+        table.resetState();
+        policy.reset(table);
+        timeline.clear();
+        int n = table.size();
+        if (arrivalOrder.length < n) {
+            arrivalOrder = new int[n];
+            arrivalKeys = new long[n];
+        }
+        table.arrivalOrder(arrivalOrder, arrivalKeys);
+        if (statistics != null) {
+            statistics.reset();
+        }
+        this.table = table;
+        this.timeline = timeline;
+        this.statistics = statistics;
+        this.source = null;
+        this.processCount = n;
+        this.nextArrival = 0;
+        simulate(contextSwitchingTime);
+        this.table = null;
+        this.timeline = null;
+        this.statistics = null;
+        return timeline;
+    }
+
+    // Runs every process the source supplies, keeping only waiting and running processes in the table
+    // (which is cleared first; rows are reused once their process finishes). No timeline is kept: the
+    // results are the metrics accumulated into statistics, which is reset first.
+    public RunStatistics runStreaming(ProcessSource processSource, ProcessTable table, int contextSwitchingTime,
+                                      RunStatistics statistics) {
+        if (!policy.supportsStreaming()) {
+            throw new IllegalArgumentException(policy.getClass().getSimpleName() + " needs the whole workload up front");
+        }
+        table.clear();
+        policy.reset(table);
+        statistics.reset();
+        this.table = table;
+        this.timeline = null;
+        this.statistics = statistics;
+        this.source = processSource;
+        this.freeCount = 0;
+        this.pendingRow = -1;
+        pendingRow = loadNext(Long.MIN_VALUE);
+        simulate(contextSwitchingTime);
+        this.table = null;
+        this.statistics = null;
+        this.source = null;
+        return statistics;
+    }
+
+    // Event loop shared by both kinds of run
+    private void simulate(int contextSwitchingTime) {
+        this.contextSwitchingTime = contextSwitchingTime;
+        this.switching = false;
+        this.running = -1;
+        this.readyQueueDepth = 0;
+        counters.reset();
+        recordDecisions = SchedulerEvents.DECISION.isEnabled();
+        recordPreemptions = SchedulerEvents.PREEMPTION.isEnabled();
+        recordContextSwitches = SchedulerEvents.CONTEXT_SWITCH.isEnabled();
+        recordStarvation = SchedulerEvents.STARVATION.isEnabled();
+        recordQuantumUpdates = SchedulerEvents.QUANTUM_UPDATE.isEnabled();
+        events.clear();
+        scheduleNextArrival();
+
+        while (!events.isEmpty()) {
+            events.pop();
+            counters.events++;
+            long now = events.getTime();
+            switch (events.getType()) {
+                case EventQueue.ARRIVAL:
+                    onArrival(now);
+                    break;
+                case EventQueue.COMPLETION:
+                    if (events.getStamp() == cpuEventStamp) {
+                        onCompletion(now);
+                    }
+                    break;
+                case EventQueue.QUANTUM_EXPIRY:
+                    if (events.getStamp() == cpuEventStamp) {
+                        onQuantumExpiry(now);
+                    }
+                    break;
+                case EventQueue.CONTEXT_SWITCH_DONE:
+                    switching = false;
+                    if (!policy.isEmpty()) {
+                        dispatch(select(now), now);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event type " + events.getType());
+            }
+        }
+    }
+
+    // Admits every process arriving now and checks whether one of them takes the CPU
+    private void onArrival(long now) {
+        // A process arriving exactly when the running one leaves the CPU waits for that event instead
+        boolean canPreempt = running != -1 && now < cpuEventTime;
+        if (canPreempt) {
+            updateRemaining(now);
+        }
+        boolean preempted = false;
+        int arrived;
+        while ((arrived = peekArrival()) != -1 && table.getArrivalTime(arrived) <= now) {
+            popArrival();
+            addReady(arrived, now);
+            if (canPreempt && !preempted && policy.preempts(arrived, running, now)) {
+                preempted = true;
+            }
+        }
+        scheduleNextArrival();
+
+        if (preempted) {
+            int left = running;
+            policyEvents.onPreempted(table.getPid(left), now);
+            endSlice(now);
+            policy.onPreempted(left, now - selectedAt, now);
+            addReady(left, now);
+            switchFrom(left, now);
+        } else if (running == -1 && !switching) {
+            // The CPU was idle
+            dispatch(select(now), now);
+        }
+    }
+
+    private void onCompletion(long now) {
+        int finished = running;
+        endSlice(now);
+        table.setCompletionTime(finished, (int) now);
+        policy.onCompleted(finished, now);
+        if (listener != null) {
+            listener.onCompleted(table.getPid(finished), now);
+        }
+        if (statistics != null) {
+            statistics.recordCompletion(table.getArrivalTime(finished), table.getBurstTime(finished),
+                    table.getFirstRunTime(finished), now);
+        }
+        if (source != null) {
+            freeRow(finished);
+        }
+        startSwitch(finished, now);
+    }
+
+    private void onQuantumExpiry(long now) {
+        updateRemaining(now);
+        if (policy.continueAfterSlice(running, now - selectedAt, now)) {
+            startPhase(now);
+            return;
+        }
+        int left = running;
+        endSlice(now);
+        addReady(left, now);
+        switchFrom(left, now);
+    }
+
+    // The given process just went back to the ready queue: it keeps the CPU if the policy picks it again,
+    // otherwise the CPU switches to another process
+    private void switchFrom(int left, long now) {
+        if (policy.peek(now) == left) {
+            dispatch(select(now), now);
+        } else {
+            startSwitch(left, now);
+        }
+    }
+
+    // Starts a context switch away from the given process; the next process is selected when it is done
+    private void startSwitch(int from, long now) {
+        if (!policy.isEmpty() || peekArrival() != -1) {
+            counters.contextSwitches++;
+            if (recordContextSwitches) {
+                SchedulerEvents.ContextSwitch event = new SchedulerEvents.ContextSwitch();
+                event.simulationTime = now;
+                event.fromPid = table.getPid(from);
+                event.contextSwitchingTime = contextSwitchingTime;
+                event.commit();
+            }
+        }
+        if (contextSwitchingTime == 0) {
+            // Nothing to wait for, but arrivals at this time are already in, so decide right away
+            if (!policy.isEmpty()) {
+                dispatch(select(now), now);
+            }
+            return;
+        }
+        switching = true;
+        events.push(now + contextSwitchingTime, EventQueue.CONTEXT_SWITCH_DONE, -1, 0);
+    }
+
+    // Puts a process in the ready queue
+    private void addReady(int row, long now) {
+        policy.add(row, now);
+        counters.readyQueueAdds++;
+        readyQueueDepth++;
+        if (readyQueueDepth > counters.maxReadyQueueDepth) {
+            counters.maxReadyQueueDepth = readyQueueDepth;
+        }
+    }
+
+    // Takes the process to run next out of the ready queue
+    private int select(long now) {
+        counters.decisions++;
+        if (!recordDecisions) {
+            readyQueueDepth--;
+            return policy.select(now);
+        }
+        SchedulerEvents.Decision event = new SchedulerEvents.Decision();
+        event.begin();
+        int row = policy.select(now);
+        event.end();
+        event.simulationTime = now;
+        event.pid = table.getPid(row);
+        event.readyQueueDepth = readyQueueDepth--;
+        event.commit();
+        return row;
+    }
+
+    // Puts a process on the CPU
+    private void dispatch(int row, long now) {
+        if (table.getFirstRunTime(row) < 0) {
+            table.setFirstRunTime(row, (int) now);
+        }
+        if (listener != null) {
+            listener.onSliceStart(table.getPid(row), now);
+        }
+        running = row;
+        selectedAt = now;
+        startPhase(now);
+    }
+
+    // Starts a time slice of the running process and schedules the event that ends it
+    private void startPhase(long now) {
+        phaseStart = now;
+        remainingAtPhase = table.getRemainingTime(running);
+        long slice = policy.timeSlice(running, now);
+        cpuEventStamp++;
+        if (remainingAtPhase <= slice) {
+            cpuEventTime = now + remainingAtPhase;
+            events.push(cpuEventTime, EventQueue.COMPLETION, running, cpuEventStamp);
+        } else {
+            cpuEventTime = now + slice;
+            events.push(cpuEventTime, EventQueue.QUANTUM_EXPIRY, running, cpuEventStamp);
+        }
+    }
+
+    // Brings the remaining time of the running process up to date
+    private void updateRemaining(long now) {
+        table.setRemainingTime(running, (int) (remainingAtPhase - (now - phaseStart)));
+    }
+
+    // Takes the running process off the CPU and records its run (merged with the previous one if it continues it)
+    private void endSlice(long now) {
+        updateRemaining(now);
+        long runStart = selectedAt;
+        if (timeline != null) {
+            timeline.append(running, (int) runStart, (int) (now - runStart));
+        }
+        if (statistics != null) {
+            statistics.recordRun(table.getPid(running), runStart, now - runStart);
+        }
+        if (listener != null && now > runStart) {
+            listener.onSliceEnd(table.getPid(running), runStart, now - runStart);
+        }
+        running = -1;
+        cpuEventStamp++; // Any pending completion or expiry no longer applies
+    }
+
+    private void scheduleNextArrival() {
+        int next = peekArrival();
+        if (next != -1) {
+            events.push(table.getArrivalTime(next), EventQueue.ARRIVAL, -1, 0);
+        }
+    }
+
+    // Row of the next process to arrive, -1 if there is none
+    private int peekArrival() {
+        if (source != null) {
+            return pendingRow;
+        }
+        return nextArrival < processCount ? arrivalOrder[nextArrival] : -1;
+    }
+
+    // Moves past the next process to arrive
+    private void popArrival() {
+        if (source != null) {
+            pendingRow = loadNext(table.getArrivalTime(pendingRow));
+        } else {
+            nextArrival++;
+        }
+    }
+
+    // Loads the next process from the source into a free row and returns the row, -1 at the end of the source
+    private int loadNext(long previousArrival) {
+        int row = freeCount > 0 ? freeRows[--freeCount] : table.size();
+        if (!source.next(table, row)) {
+            if (row < table.size()) {
+                freeRows[freeCount++] = row;
+            }
+            return -1;
+        }
+        if (table.getArrivalTime(row) < previousArrival) {
+            throw new IllegalStateException("Process " + table.getPid(row) + " arrives at "
+                    + table.getArrivalTime(row) + ", before the previous process (" + previousArrival + ")");
+        }
+        return row;
+    }
+
+    // Receives what the policy reports (and the kernel's own preemptions): counts it, records it for the
+    // Flight Recorder and passes it on to the listener
+    private class PolicyEvents implements SchedulingListener {
+        @Override
+        public void onPreempted(int pid, long time) {
+            counters.preemptions++;
+            if (recordPreemptions) {
+                SchedulerEvents.Preemption event = new SchedulerEvents.Preemption();
+                event.simulationTime = time;
+                event.pid = pid;
+                event.commit();
+            }
+            if (listener != null) {
+                listener.onPreempted(pid, time);
+            }
+        }
+
+        @Override
+        public void onStarved(int pid, long time) {
+            counters.starvationPromotions++;
+            if (recordStarvation) {
+                SchedulerEvents.Starvation event = new SchedulerEvents.Starvation();
+                event.simulationTime = time;
+                event.pid = pid;
+                event.commit();
+            }
+            if (listener != null) {
+                listener.onStarved(pid, time);
+            }
+        }
+
+        @Override
+        public void onQuantumChanged(int pid, int oldQuantum, int newQuantum, long time) {
+            counters.quantumUpdates++;
+            if (recordQuantumUpdates) {
+                SchedulerEvents.QuantumUpdate event = new SchedulerEvents.QuantumUpdate();
+                event.simulationTime = time;
+                event.pid = pid;
+                event.oldQuantum = oldQuantum;
+                event.newQuantum = newQuantum;
+                event.commit();
+            }
+            if (listener != null) {
+                listener.onQuantumChanged(pid, oldQuantum, newQuantum, time);
+            }
+        }
+    }
+
+    private void freeRow(int row) {
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+}
@@ -0,0 +1,172 @@
+package experiments;
+
+import algorithms.RunContext;
+import algorithms.Scheduler;
+import algorithms.SchedulerRegistry;
+import models.Workload;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Runs a list of experiments in parallel on a ForkJoin pool. Workloads are immutable and every worker
+// thread schedules on its own RunContext, so cells never share run state; results come back in the
+// order of the experiments whatever order they finished in.
+public class BatchRunner {
+    private final SchedulerRegistry registry;
+    private final int parallelism;
+
+    public BatchRunner(SchedulerRegistry registry, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.registry = registry;
+        this.parallelism = parallelism;
+    }
+
+    // Runner using every available core
+    public BatchRunner(SchedulerRegistry registry) {
+        this(registry, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Every combination of workload, scheduler and context switching time. Quanta are only varied for
+    // schedulers that use them; a quantum of 0 keeps each workload's own quanta.
+    public List<Experiment> matrix(Map<String, Workload> workloads, List<String> schedulerIds,
+                                   int[] contextSwitchingTimes, int[] quanta) {
+        List<Experiment> experiments = new ArrayList<>();
+        for (Map.Entry<String, Workload> workload : workloads.entrySet()) {
+            for (String schedulerId : schedulerIds) {
+                Scheduler scheduler = registry.get(schedulerId);
+                int[] schedulerQuanta = scheduler.usesQuantum() ? quanta : new int[] {0};
+                for (int contextSwitchingTime : contextSwitchingTimes) {
+                    for (int quantum : schedulerQuanta) {
+                        experiments.add(new Experiment(workload.getKey(), workload.getValue(), schedulerId,
+                                contextSwitchingTime, quantum));
+                    }
+                }
+            }
+        }
+        return experiments;
+    }
+
+    // Runs every experiment and returns their results in the same order
+    public List<ExperimentResult> run(List<Experiment> experiments) {
+        Experiment[] cells = experiments.toArray(new Experiment[0]);
+        Scheduler[] schedulers = new Scheduler[cells.length];
+        Workload[] workloads = new Workload[cells.length];
+
+        // Look everything up before starting, so a bad id fails at once and each quantum variant of a
+        // workload is built only once
+        Map<Workload, Map<Integer, Workload>> variants = new IdentityHashMap<>();
+        for (int i = 0; i < cells.length; i++) {
+            schedulers[i] = registry.get(cells[i].getSchedulerId());
+            Workload workload = cells[i].getWorkload();
+            int quantum = cells[i].getQuantum();
+            workloads[i] = quantum == 0 ? workload
+                    : variants.computeIfAbsent(workload, w -> new HashMap<>())
+                            .computeIfAbsent(quantum, workload::withQuantum);
+        }
+
+        ExperimentResult[] results = new ExperimentResult[cells.length];
+        ThreadLocal<RunContext> contexts = ThreadLocal.withInitial(RunContext::new);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Cells(cells, schedulers, workloads, results, contexts, 0, cells.length));
+        } finally {
+            pool.shutdown();
+        }
+        return Arrays.asList(results);
+    }
+
+    // Writes one line per result, with a header line
+    public static void writeCsv(List<ExperimentResult> results, Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("workload,scheduler,context_switching_time,quantum,processes,executions,context_switches,"
+                    + "end_time,throughput,cpu_utilization,"
+                    + distributionHeader("waiting") + "," + distributionHeader("turnaround") + ","
+                    + distributionHeader("response") + ",run_ms");
+            writer.newLine();
+            for (ExperimentResult result : results) {
+                Experiment experiment = result.getExperiment();
+                writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d,%.6f,%.4f,%s,%s,%s,%.3f",
+                        csvField(experiment.getWorkloadName()), experiment.getSchedulerId(),
+                        experiment.getContextSwitchingTime(), experiment.getQuantum(),
+                        result.getCompleted(), result.getExecutions(), result.getContextSwitches(),
+                        result.getEndTime(), result.getThroughput(), result.getCpuUtilization(),
+                        distributionFields(result.getWaitingTime()), distributionFields(result.getTurnaroundTime()),
+                        distributionFields(result.getResponseTime()), result.getRunNanos() / 1e6));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String distributionHeader(String metric) {
+        return metric + "_mean," + metric + "_p50," + metric + "_p95," + metric + "_p99," + metric + "_max";
+    }
+
+    private static String distributionFields(ExperimentResult.Distribution distribution) {
+        return String.format(Locale.ROOT, "%.4f,%d,%d,%d,%d", distribution.getMean(), distribution.getP50(),
+                distribution.getP95(), distribution.getP99(), distribution.getMax());
+    }
+
+    // Quotes a field that contains a comma, quote or line break
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Runs the cells in [from, to), splitting the range in halves until each task has one cell, so
+    // idle workers can steal the rest of a slow half
+    private static class Cells extends RecursiveAction {
+        private final Experiment[] cells;
+        private final Scheduler[] schedulers;
+        private final Workload[] workloads;
+        private final ExperimentResult[] results;
+        private final ThreadLocal<RunContext> contexts;
+        private final int from;
+        private final int to;
+
+        Cells(Experiment[] cells, Scheduler[] schedulers, Workload[] workloads, ExperimentResult[] results,
+              ThreadLocal<RunContext> contexts, int from, int to) {
+            this.cells = cells;
+            this.schedulers = schedulers;
+            this.workloads = workloads;
+            this.results = results;
+            this.contexts = contexts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Cells(cells, schedulers, workloads, results, contexts, from, middle),
+                        new Cells(cells, schedulers, workloads, results, contexts, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                RunContext context = contexts.get();
+                long start = System.nanoTime();
+                schedulers[i].schedule(workloads[i], cells[i].getContextSwitchingTime(), context);
+                long runNanos = System.nanoTime() - start;
+
+                // The run's metrics belong to the worker's context, so keep a summary of them
+                results[i] = new ExperimentResult(cells[i], context.getStatistics(), runNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package experiments;
+
+import models.Workload;
+
+// One cell of an experiment matrix: a workload, the scheduler to run it with and the run's parameters
+public class Experiment {
+    private final String workloadName;      // Label of the workload in the results, e.g. its file name
+    private final Workload workload;
+    private final String schedulerId;       // Id in the runner's SchedulerRegistry
+    private final int contextSwitchingTime;
+    private final int quantum;              // Starting quantum of every process, or 0 to keep the workload's
+
+    public Experiment(String workloadName, Workload workload, String schedulerId, int contextSwitchingTime,
+                      int quantum) {
+        if (contextSwitchingTime < 0) {
+            throw new IllegalArgumentException("Context switching time must not be negative");
+        }
+        if (quantum < 0) {
+            throw new IllegalArgumentException("Quantum must not be negative");
+        }
+        this.workloadName = workloadName;
+        this.workload = workload;
+        this.schedulerId = schedulerId;
+        this.contextSwitchingTime = contextSwitchingTime;
+        this.quantum = quantum;
+    }
+
+    public String getWorkloadName() {
+        return workloadName;
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public String getSchedulerId() {
+        return schedulerId;
+    }
+
+    public int getContextSwitchingTime() {
+        return contextSwitchingTime;
+    }
+
+    public int getQuantum() {
+        return quantum;
+    }
+}
@@ -0,0 +1,115 @@
+package experiments;
+
+import models.Histogram;
+import models.RunStatistics;
+
+// Outcome of one experiment: the metrics of its run and how long the scheduler took. Only summaries of
+// the run's histograms are kept, so a large sweep holds a few numbers per cell.
+public class ExperimentResult {
+    private final Experiment experiment;
+    private final long runNanos;     // Wall-clock time of the scheduler run alone
+    private final long completed;
+    private final long executions;
+    private final long contextSwitches;
+    private final long endTime;
+    private final double throughput;     // Processes completed per time unit
+    private final double cpuUtilization;
+    private final Distribution waitingTime;
+    private final Distribution turnaroundTime;
+    private final Distribution responseTime;
+
+    public ExperimentResult(Experiment experiment, RunStatistics statistics, long runNanos) {
+        this.experiment = experiment;
+        this.runNanos = runNanos;
+        this.completed = statistics.getCompleted();
+        this.executions = statistics.getExecutions();
+        this.contextSwitches = statistics.getContextSwitches();
+        this.endTime = statistics.getEndTime();
+        this.throughput = statistics.getThroughput();
+        this.cpuUtilization = statistics.getCpuUtilization();
+        this.waitingTime = new Distribution(statistics.getWaitingTimes());
+        this.turnaroundTime = new Distribution(statistics.getTurnaroundTimes());
+        this.responseTime = new Distribution(statistics.getResponseTimes());
+    }
+
+    public Experiment getExperiment() {
+        return experiment;
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getCpuUtilization() {
+        return cpuUtilization;
+    }
+
+    public Distribution getWaitingTime() {
+        return waitingTime;
+    }
+
+    public Distribution getTurnaroundTime() {
+        return turnaroundTime;
+    }
+
+    public Distribution getResponseTime() {
+        return responseTime;
+    }
+
+    // Mean, percentiles and maximum of one per-process time
+    public static class Distribution {
+        private final double mean;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+
+        public Distribution(Histogram histogram) {
+            this.mean = histogram.getMean();
+            this.p50 = histogram.getPercentile(50);
+            this.p95 = histogram.getPercentile(95);
+            this.p99 = histogram.getPercentile(99);
+            this.max = histogram.getMax();
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP95() {
+            return p95;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package experiments;
+
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+
+// Merged outcome of a partitioned run: every process of the workload with its results, the runs of all
+// partitions in one timeline (for GanttChart, through getTimeline().asList()), the metrics of all
+// partitions together and of each one.
+public class PartitionedResult {
+    private final ProcessTable table;           // Row i is row i of the workload
+    private final Timeline timeline;            // Null if it was not kept
+    private final RunStatistics statistics;     // All partitions, utilization over as many CPUs as partitions
+    private final int[] keys;                   // Partition key of each partition, ascending
+    private final RunStatistics[] partitionStatistics;
+    private final long runNanos;                // Wall-clock time of splitting, scheduling and merging
+
+    PartitionedResult(ProcessTable table, Timeline timeline, RunStatistics statistics, int[] keys,
+                      RunStatistics[] partitionStatistics, long runNanos) {
+        this.table = table;
+        this.timeline = timeline;
+        this.statistics = statistics;
+        this.keys = keys;
+        this.partitionStatistics = partitionStatistics;
+        this.runNanos = runNanos;
+    }
+
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    // Runs of every partition ordered by start time (runs of different partitions overlap), or null
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    public RunStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Number of partitions that had processes
+    public int getPartitionCount() {
+        return keys.length;
+    }
+
+    // Partition key of the i-th partition
+    public int getPartitionKey(int partition) {
+        return keys[partition];
+    }
+
+    public RunStatistics getStatistics(int partition) {
+        return partitionStatistics[partition];
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+}
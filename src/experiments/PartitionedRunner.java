@@ -0,0 +1,220 @@
+package experiments;
+
+import algorithms.IndexedMinHeap;
+import algorithms.RunContext;
+import algorithms.Scheduler;
+import models.ProcessTable;
+import models.RunStatistics;
+import models.Timeline;
+import models.Workload;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Simulates a workload whose processes are statically assigned to independent CPUs (partitions): the
+// workload is split by a partition key and every partition is scheduled on its own, in parallel on a
+// ForkJoin pool, with the same scheduler. The per-partition results are then merged into one process
+// table, timeline and set of metrics, as if the partitions were CPUs of one machine.
+//
+// Splitting and merging the metrics are cheap; merging the timelines is a serial pass over every run
+// of every partition, so leave the timeline out when only the metrics are wanted.
+public class PartitionedRunner {
+    // Partition a process belongs to: a small non-negative number, e.g. a CPU id
+    public interface PartitionKey {
+        int partitionOf(Workload workload, int row);
+
+        // Partition pid mod partitions
+        static PartitionKey byPid(int partitions) {
+            if (partitions < 1) {
+                throw new IllegalArgumentException("Partitions must be at least 1");
+            }
+            return (workload, row) -> Math.floorMod(workload.getPid(row), partitions);
+        }
+    }
+
+    private final int parallelism;
+
+    public PartitionedRunner(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    // Runner using every available core
+    public PartitionedRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Schedules every partition of the workload and merges the results; with keepTimeline false the
+    // result has no timeline. Partitions without processes are left out.
+    public PartitionedResult run(Workload workload, Scheduler scheduler, int contextSwitchingTime,
+                                 PartitionKey key, boolean keepTimeline) {
+        long start = System.nanoTime();
+
+        // Group the rows by partition (counting sort, so each partition keeps the workload's row order)
+        int n = workload.size();
+        int[] partitionOf = new int[n];
+        int maxKey = -1;
+        for (int row = 0; row < n; row++) {
+            int partition = key.partitionOf(workload, row);
+            if (partition < 0) {
+                throw new IllegalArgumentException("Negative partition " + partition + " for process "
+                        + workload.getPid(row));
+            }
+            partitionOf[row] = partition;
+            maxKey = Math.max(maxKey, partition);
+        }
+        int[] counts = new int[maxKey + 1];
+        for (int row = 0; row < n; row++) {
+            counts[partitionOf[row]]++;
+        }
+        int partitionCount = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                partitionCount++;
+            }
+        }
+        int[] keys = new int[partitionCount];
+        int[] bounds = new int[partitionCount + 1]; // Partition p has rows[bounds[p]] to rows[bounds[p + 1] - 1]
+        int[] next = new int[maxKey + 1];           // Next free slot of each key in rows
+        for (int k = 0, p = 0; k <= maxKey; k++) {
+            if (counts[k] > 0) {
+                keys[p] = k;
+                next[k] = bounds[p];
+                bounds[p + 1] = bounds[p] + counts[k];
+                p++;
+            }
+        }
+        int[] rows = new int[n];
+        for (int row = 0; row < n; row++) {
+            rows[next[partitionOf[row]]++] = row;
+        }
+
+        // Schedule the partitions; each writes its processes' results into the merged table
+        ProcessTable table = workload.toTable();
+        RunStatistics[] statistics = new RunStatistics[partitionCount];
+        int[][] runs = keepTimeline ? new int[partitionCount][] : null;
+        ThreadLocal<RunContext> contexts = ThreadLocal.withInitial(RunContext::new);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Partitions(new Job(workload, scheduler, contextSwitchingTime, rows, bounds, table,
+                    statistics, runs, contexts), 0, partitionCount));
+        } finally {
+            pool.shutdown();
+        }
+
+        RunStatistics total = new RunStatistics();
+        for (RunStatistics partition : statistics) {
+            total.add(partition);
+        }
+        total.setCores(Math.max(partitionCount, 1));
+        Timeline timeline = keepTimeline ? mergeRuns(table, runs) : null;
+        return new PartitionedResult(table, timeline, total, keys, statistics, System.nanoTime() - start);
+    }
+
+    // Timeline of every partition's runs, ordered by start time (ties in partition order)
+    private static Timeline mergeRuns(ProcessTable table, int[][] runs) {
+        Timeline timeline = new Timeline(table);
+        int[] cursor = new int[runs.length]; // Offset of each partition's next run in runs[p]
+        IndexedMinHeap heads = new IndexedMinHeap(runs.length, (a, b) -> {
+            int compare = Integer.compare(runs[a][cursor[a]], runs[b][cursor[b]]);
+            return compare != 0 ? compare : Integer.compare(a, b);
+        });
+        for (int p = 0; p < runs.length; p++) {
+            if (runs[p].length > 0) {
+                heads.add(p);
+            }
+        }
+        while (!heads.isEmpty()) {
+            int p = heads.peek();
+            int i = cursor[p];
+            timeline.append(runs[p][i + 2], runs[p][i], runs[p][i + 1]);
+            cursor[p] = i + 3;
+            if (cursor[p] == runs[p].length) {
+                heads.poll();
+            } else {
+                heads.update(p);
+            }
+        }
+        return timeline;
+    }
+
+    // What every partition task needs
+    private static class Job {
+        final Workload workload;
+        final Scheduler scheduler;
+        final int contextSwitchingTime;
+        final int[] rows;
+        final int[] bounds;
+        final ProcessTable table;
+        final RunStatistics[] statistics;
+        final int[][] runs;               // Per partition: start, duration and workload row of each run (null if not kept)
+        final ThreadLocal<RunContext> contexts;
+
+        Job(Workload workload, Scheduler scheduler, int contextSwitchingTime, int[] rows, int[] bounds,
+            ProcessTable table, RunStatistics[] statistics, int[][] runs, ThreadLocal<RunContext> contexts) {
+            this.workload = workload;
+            this.scheduler = scheduler;
+            this.contextSwitchingTime = contextSwitchingTime;
+            this.rows = rows;
+            this.bounds = bounds;
+            this.table = table;
+            this.statistics = statistics;
+            this.runs = runs;
+            this.contexts = contexts;
+        }
+
+        // Schedules one partition and copies its results out of the worker's context
+        void run(int p) {
+            int from = bounds[p];
+            Workload part = workload.subset(rows, from, bounds[p + 1]);
+            RunContext context = contexts.get();
+            Timeline timeline = scheduler.schedule(part, contextSwitchingTime, context);
+            ProcessTable partTable = timeline.getTable();
+            for (int i = 0; i < partTable.size(); i++) {
+                int row = rows[from + i];
+                table.setRemainingTime(row, partTable.getRemainingTime(i));
+                table.setCompletionTime(row, partTable.getCompletionTime(i));
+                table.setFirstRunTime(row, partTable.getFirstRunTime(i));
+                table.setUpdatedQuantum(row, partTable.getUpdatedQuantum(i));
+            }
+            RunStatistics partition = new RunStatistics();
+            partition.add(context.getStatistics());
+            statistics[p] = partition;
+            if (runs != null) {
+                int[] partRuns = new int[timeline.size() * 3];
+                for (int i = 0; i < timeline.size(); i++) {
+                    partRuns[3 * i] = timeline.getStart(i);
+                    partRuns[3 * i + 1] = timeline.getDuration(i);
+                    partRuns[3 * i + 2] = rows[from + timeline.getRow(i)];
+                }
+                runs[p] = partRuns;
+            }
+        }
+    }
+
+    // Schedules the partitions in [from, to), splitting the range in halves until each task has one
+    // partition, so idle workers can steal the rest of a slow half
+    private static class Partitions extends RecursiveAction {
+        private final Job job;
+        private final int from;
+        private final int to;
+
+        Partitions(Job job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Partitions(job, from, middle), new Partitions(job, middle, to));
+            } else if (to > from) {
+                job.run(from);
+            }
+        }
+    }
+}
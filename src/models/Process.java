@@ -10,6 +10,7 @@ public class Process {
     private int burstTime;           // Total CPU burst time required by the process
     private int priority;            // Priority level of the process (lower value = higher priority)
     private String color;            // Visual representation (e.g., for Gantt charts)
+    private Color decodedColor;      // color decoded on first use
     private int pid;                 // Unique Process ID
     private int completionTime;      // Time the process finishes execution
     private int originalBurstTime = 0; // To store the initial burst time for specific algorithms
@@ -52,7 +53,11 @@ public class Process {
     }
 
     public Color getColor() {
-        return Color.decode(color); // Converts the hex color string to a Color object
+        // Converts the hex color string to a Color object once and reuses it afterwards
+        if (decodedColor == null) {
+            decodedColor = Color.decode(color);
+        }
+        return decodedColor;
     }
 
     public int getPid() {
@@ -114,8 +119,13 @@ public class Process {
 
     // Calculates the FCAI factor used in the scheduling algorithm
     public void calculateFcaiFactor(double v1, double v2) {
+        this.fcaiFactor = fcaiFactor(priority, arrivalTime, burstTime, v1, v2);
+    }
+
+    // FCAI factor for the given attributes, shared by every FCAI implementation
+    public static double fcaiFactor(int priority, int arrivalTime, int burstTime, double v1, double v2) {
         // v1 and v2 are scaling factors for arrival time and burst time
-        this.fcaiFactor = (10 - priority) + Math.ceil(arrivalTime / v1) + Math.ceil(burstTime / v2);
+        return (10 - priority) + Math.ceil(arrivalTime / v1) + Math.ceil(burstTime / v2);
     }
 
     // Gets the waiting time for FCAI scheduling based on burst time
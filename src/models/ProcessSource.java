@@ -0,0 +1,10 @@
+package models;
+
+// Supplies processes one at a time, in order of arrival, so a run can consume a workload that is never
+// held in memory as a whole
+public interface ProcessSource {
+
+    // Writes the next process into the given row of the table (with ProcessTable.set) and returns true,
+    // or returns false when there are no more processes. Arrival times must not decrease.
+    boolean next(ProcessTable table, int row);
+}
@@ -0,0 +1,365 @@
+package models;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Column-oriented process table: one row per process, every attribute in its own primitive array.
+// Schedulers read and write rows by index; names and colors are interned once into side tables,
+// and Process objects are only built when something needs to be displayed.
+public class ProcessTable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_NAME = -1; // Name column value for processes named after their PID
+    private static final int[] DEFAULT_PALETTE = new int[64]; // Colors for processes that do not bring one
+
+    static {
+        // Evenly spread hues (golden ratio steps), so neighbouring PIDs get clearly different colors
+        for (int i = 0; i < DEFAULT_PALETTE.length; i++) {
+            DEFAULT_PALETTE[i] = Color.HSBtoRGB((i * 0.618034f) % 1f, 0.55f, 0.95f) & 0xffffff;
+        }
+    }
+
+    private int size; // Number of rows
+
+    // Input columns (what the workload describes)
+    private int[] pid;            // Unique Process ID
+    private int[] arrivalTime;    // Time the process arrives in the ready queue
+    private int[] burstTime;      // Total CPU burst time required by the process
+    private int[] priority;       // Priority level (lower value = higher priority)
+    private int[] quantum;        // Initial quantum (FCAI)
+    private int[] nameId;         // Index into names, or NO_NAME
+    private int[] colorId;        // Index into palette
+
+    // Run state columns (what a scheduler produces)
+    private int[] remainingTime;  // Burst time still to run
+    private int[] completionTime; // Time the process finished
+    private int[] firstRunTime;   // Time the process first got the CPU, -1 until then
+    private int[] updatedQuantum; // Current quantum (FCAI)
+    private double[] fcaiFactor;  // Last FCAI factor
+
+    // Side tables for interned names and colors
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private int[] palette = new int[INITIAL_CAPACITY];          // RGB value of each color id
+    private Color[] paletteColors = new Color[INITIAL_CAPACITY]; // Decoded on first use
+    private int paletteSize;
+    private final Map<Integer, Integer> colorIds = new HashMap<>();
+
+    public ProcessTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    // Creates an empty table with room for the given number of rows
+    public ProcessTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        pid = new int[capacity];
+        arrivalTime = new int[capacity];
+        burstTime = new int[capacity];
+        priority = new int[capacity];
+        quantum = new int[capacity];
+        nameId = new int[capacity];
+        colorId = new int[capacity];
+        remainingTime = new int[capacity];
+        completionTime = new int[capacity];
+        firstRunTime = new int[capacity];
+        updatedQuantum = new int[capacity];
+        fcaiFactor = new double[capacity];
+    }
+
+    // Builds a table from Process objects, row i being processes.get(i)
+    public static ProcessTable fromProcesses(List<Process> processes) {
+        ProcessTable table = new ProcessTable(processes.size());
+        for (Process process : processes) {
+            int row = table.add(process.getName(), process.getArrivalTime(), process.getBurstTime(),
+                    process.getPriority(), process.getColor().getRGB(), process.getPid());
+            table.setQuantum(row, process.getUpdatedQuantum());
+        }
+        return table;
+    }
+
+    // Adds a process and returns its row; a null name means the process is shown as "P" + pid
+    public int add(String name, int arrival, int burst, int processPriority, int rgb, int processId) {
+        int row = size;
+        set(row, name, arrival, burst, processPriority, rgb, processId, 0);
+        return row;
+    }
+
+    // Overwrites a row with a new process and resets its run state; row == size() adds a row.
+    // Lets streaming runs reuse the rows of processes that have finished.
+    public void set(int row, String name, int arrival, int burst, int processPriority, int rgb, int processId,
+                    int processQuantum) {
+        if (row < 0 || row > size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+        if (row == size) {
+            ensureCapacity(size + 1);
+            size++;
+        }
+        pid[row] = processId;
+        arrivalTime[row] = arrival;
+        burstTime[row] = burst;
+        priority[row] = processPriority;
+        quantum[row] = processQuantum;
+        nameId[row] = name == null ? NO_NAME : internName(name);
+        colorId[row] = internColor(rgb & 0xffffff);
+        remainingTime[row] = burst;
+        completionTime[row] = 0;
+        firstRunTime[row] = -1;
+        updatedQuantum[row] = processQuantum;
+        fcaiFactor[row] = 0;
+    }
+
+    // Adds a process with a hex color such as "#1a2b3c"
+    public int add(String name, int arrival, int burst, int processPriority, String color, int processId) {
+        return add(name, arrival, burst, processPriority, Integer.decode(color), processId);
+    }
+
+    // Puts every run state column back to its starting value so the table can be scheduled again
+    public void resetState() {
+        System.arraycopy(burstTime, 0, remainingTime, 0, size);
+        System.arraycopy(quantum, 0, updatedQuantum, 0, size);
+        Arrays.fill(completionTime, 0, size, 0);
+        Arrays.fill(firstRunTime, 0, size, -1);
+        Arrays.fill(fcaiFactor, 0, size, 0);
+    }
+
+    // Removes every row, name and color, keeping the arrays for reuse
+    public void clear() {
+        size = 0;
+        names.clear();
+        nameIds.clear();
+        Arrays.fill(paletteColors, 0, paletteSize, null);
+        paletteSize = 0;
+        colorIds.clear();
+    }
+
+    // Replaces the contents of this table (rows, names, colors and run state) with a copy of another table,
+    // reusing this table's arrays where they are large enough
+    public void copyFrom(ProcessTable other) {
+        if (other == this) {
+            return;
+        }
+        size = 0;
+        ensureCapacity(other.size);
+        size = other.size;
+        System.arraycopy(other.pid, 0, pid, 0, size);
+        System.arraycopy(other.arrivalTime, 0, arrivalTime, 0, size);
+        System.arraycopy(other.burstTime, 0, burstTime, 0, size);
+        System.arraycopy(other.priority, 0, priority, 0, size);
+        System.arraycopy(other.quantum, 0, quantum, 0, size);
+        System.arraycopy(other.nameId, 0, nameId, 0, size);
+        System.arraycopy(other.colorId, 0, colorId, 0, size);
+        System.arraycopy(other.remainingTime, 0, remainingTime, 0, size);
+        System.arraycopy(other.completionTime, 0, completionTime, 0, size);
+        System.arraycopy(other.firstRunTime, 0, firstRunTime, 0, size);
+        System.arraycopy(other.updatedQuantum, 0, updatedQuantum, 0, size);
+        System.arraycopy(other.fcaiFactor, 0, fcaiFactor, 0, size);
+
+        names.clear();
+        names.addAll(other.names);
+        nameIds.clear();
+        nameIds.putAll(other.nameIds);
+        if (palette.length < other.paletteSize) {
+            palette = new int[other.palette.length];
+            paletteColors = new Color[other.palette.length];
+        }
+        System.arraycopy(other.palette, 0, palette, 0, other.paletteSize);
+        System.arraycopy(other.paletteColors, 0, paletteColors, 0, other.paletteSize); // Color is immutable
+        paletteSize = other.paletteSize;
+        colorIds.clear();
+        colorIds.putAll(other.colorIds);
+    }
+
+    // Rows sorted by arrival time, rows with equal arrival keep table order
+    public int[] arrivalOrder() {
+        int[] order = new int[size];
+        arrivalOrder(order, new long[size]);
+        return order;
+    }
+
+    // Same as arrivalOrder(), written to order using keys as scratch space (both need room for size() rows)
+    public void arrivalOrder(int[] order, long[] keys) {
+        for (int row = 0; row < size; row++) {
+            keys[row] = ((long) arrivalTime[row] << 32) | row;
+        }
+        Arrays.sort(keys, 0, size);
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Input columns
+    public int getPid(int row) {
+        return pid[row];
+    }
+
+    public int getArrivalTime(int row) {
+        return arrivalTime[row];
+    }
+
+    public int getBurstTime(int row) {
+        return burstTime[row];
+    }
+
+    public int getPriority(int row) {
+        return priority[row];
+    }
+
+    public int getQuantum(int row) {
+        return quantum[row];
+    }
+
+    // Sets the initial quantum of a row (also its current quantum)
+    public void setQuantum(int row, int value) {
+        quantum[row] = value;
+        updatedQuantum[row] = value;
+    }
+
+    // Color for a process without one of its own; only a small fixed palette is used, so large
+    // workloads do not fill the color side table
+    public static int defaultRgb(int processId) {
+        return DEFAULT_PALETTE[Math.floorMod(processId, DEFAULT_PALETTE.length)];
+    }
+
+    // Whether the row has its own name rather than being shown as "P" + pid
+    public boolean hasName(int row) {
+        return nameId[row] != NO_NAME;
+    }
+
+    public String getName(int row) {
+        return nameId[row] == NO_NAME ? "P" + pid[row] : names.get(nameId[row]);
+    }
+
+    public Color getColor(int row) {
+        int id = colorId[row];
+        Color color = paletteColors[id];
+        if (color == null) {
+            color = new Color(palette[id]);
+            paletteColors[id] = color;
+        }
+        return color;
+    }
+
+    public int getRgb(int row) {
+        return palette[colorId[row]];
+    }
+
+    // Run state columns
+    public int getRemainingTime(int row) {
+        return remainingTime[row];
+    }
+
+    public void setRemainingTime(int row, int value) {
+        remainingTime[row] = value;
+    }
+
+    public int getCompletionTime(int row) {
+        return completionTime[row];
+    }
+
+    public void setCompletionTime(int row, int value) {
+        completionTime[row] = value;
+    }
+
+    public int getFirstRunTime(int row) {
+        return firstRunTime[row];
+    }
+
+    public void setFirstRunTime(int row, int value) {
+        firstRunTime[row] = value;
+    }
+
+    public int getUpdatedQuantum(int row) {
+        return updatedQuantum[row];
+    }
+
+    public void setUpdatedQuantum(int row, int value) {
+        updatedQuantum[row] = value;
+    }
+
+    public double getFcaiFactor(int row) {
+        return fcaiFactor[row];
+    }
+
+    public void setFcaiFactor(int row, double value) {
+        fcaiFactor[row] = value;
+    }
+
+    // Common calculations, same formulas as Process
+    public int getWaitingTime(int row) {
+        return completionTime[row] - arrivalTime[row] - burstTime[row];
+    }
+
+    public int getTurnaroundTime(int row) {
+        return completionTime[row] - arrivalTime[row];
+    }
+
+    // Builds a Process for display, carrying the results of the last run
+    public Process toProcess(int row) {
+        Process process = new Process(getName(row), arrivalTime[row], burstTime[row], priority[row],
+                String.format("#%06x", getRgb(row)), pid[row]);
+        process.setCompletionTime(completionTime[row]);
+        process.setUpdatedQuantum(updatedQuantum[row]);
+        process.setFcaiFactor(fcaiFactor[row]);
+        return process;
+    }
+
+    // Builds Process objects for every row, in table order
+    public List<Process> toProcesses() {
+        List<Process> processes = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            processes.add(toProcess(row));
+        }
+        return processes;
+    }
+
+    private int internName(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private int internColor(int rgb) {
+        Integer id = colorIds.get(rgb);
+        if (id == null) {
+            id = paletteSize++;
+            if (id == palette.length) {
+                palette = Arrays.copyOf(palette, id * 2);
+                paletteColors = Arrays.copyOf(paletteColors, id * 2);
+            }
+            palette[id] = rgb;
+            colorIds.put(rgb, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= pid.length) {
+            return;
+        }
+        int capacity = Math.max(minCapacity, pid.length + (pid.length >> 1));
+        pid = Arrays.copyOf(pid, capacity);
+        arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+        burstTime = Arrays.copyOf(burstTime, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        quantum = Arrays.copyOf(quantum, capacity);
+        nameId = Arrays.copyOf(nameId, capacity);
+        colorId = Arrays.copyOf(colorId, capacity);
+        remainingTime = Arrays.copyOf(remainingTime, capacity);
+        completionTime = Arrays.copyOf(completionTime, capacity);
+        firstRunTime = Arrays.copyOf(firstRunTime, capacity);
+        updatedQuantum = Arrays.copyOf(updatedQuantum, capacity);
+        fcaiFactor = Arrays.copyOf(fcaiFactor, capacity);
+    }
+}
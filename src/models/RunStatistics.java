@@ -0,0 +1,177 @@
+package models;
+
+// Metrics of a scheduler run, accumulated while it runs: every process adds its waiting, turnaround and
+// response time to fixed-size histograms as it completes, and every run on the CPU adds to the busy time.
+// Memory does not depend on the number of processes, so percentiles of a run too large to keep a timeline
+// or per-process results need neither the process list nor a second pass.
+public class RunStatistics {
+    private final Histogram waitingTimes = new Histogram();
+    private final Histogram turnaroundTimes = new Histogram();
+    private final Histogram responseTimes = new Histogram(); // First time on the CPU minus arrival
+    private long completed;            // Processes that finished
+    private long firstArrival;         // Earliest arrival of a finished process
+    private long endTime;              // Latest completion time
+    private long busyTime;             // Time the CPU spent running processes
+    private long executions;           // Uninterrupted runs, counted like Timeline entries
+    private long contextSwitches;      // Runs that follow a run of a different process
+    private int cores;                 // CPUs the busy time was spread over
+
+    // Last run, to merge a run into it when the same process simply keeps going
+    private int lastPid = -1;
+    private long lastRunEnd = -1;
+
+    public RunStatistics() {
+        reset();
+    }
+
+    // Clears every total
+    public void reset() {
+        waitingTimes.reset();
+        turnaroundTimes.reset();
+        responseTimes.reset();
+        completed = 0;
+        firstArrival = Long.MAX_VALUE;
+        endTime = 0;
+        busyTime = 0;
+        executions = 0;
+        contextSwitches = 0;
+        cores = 1;
+        lastPid = -1;
+        lastRunEnd = -1;
+    }
+
+    // A process that first got the CPU at firstRunTime finished at completionTime
+    public void recordCompletion(int arrivalTime, int burstTime, long firstRunTime, long completionTime) {
+        long turnaroundTime = completionTime - arrivalTime;
+        completed++;
+        waitingTimes.record(turnaroundTime - burstTime);
+        turnaroundTimes.record(turnaroundTime);
+        responseTimes.record(firstRunTime - arrivalTime);
+        firstArrival = Math.min(firstArrival, arrivalTime);
+        endTime = Math.max(endTime, completionTime);
+    }
+
+    // A process ran on the CPU for duration time units from start
+    public void recordRun(int pid, long start, long duration) {
+        if (duration <= 0) {
+            return;
+        }
+        busyTime += duration;
+        if (pid != lastPid || start != lastRunEnd) {
+            executions++;
+            if (lastPid != -1 && pid != lastPid) {
+                contextSwitches++;
+            }
+        }
+        lastPid = pid;
+        lastRunEnd = start + duration;
+    }
+
+    // Adds every total of another run, e.g. of another CPU of the same simulation (the number of CPUs is
+    // left as it is; see setCores)
+    public void add(RunStatistics other) {
+        waitingTimes.add(other.waitingTimes);
+        turnaroundTimes.add(other.turnaroundTimes);
+        responseTimes.add(other.responseTimes);
+        completed += other.completed;
+        firstArrival = Math.min(firstArrival, other.firstArrival);
+        endTime = Math.max(endTime, other.endTime);
+        busyTime += other.busyTime;
+        executions += other.executions;
+        contextSwitches += other.contextSwitches;
+    }
+
+    // Number of CPUs the runs were spread over (1 unless set), used for the utilization
+    public void setCores(int cores) {
+        if (cores < 1) {
+            throw new IllegalArgumentException("Cores must be at least 1");
+        }
+        this.cores = cores;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    // Distributions of the per-process times
+    public Histogram getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    public Histogram getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+
+    public Histogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    public long getTotalWaitingTime() {
+        return waitingTimes.getTotal();
+    }
+
+    public long getTotalTurnaroundTime() {
+        return turnaroundTimes.getTotal();
+    }
+
+    public double getAverageWaitingTime() {
+        return waitingTimes.getMean();
+    }
+
+    public double getAverageTurnaroundTime() {
+        return turnaroundTimes.getMean();
+    }
+
+    public double getAverageResponseTime() {
+        return responseTimes.getMean();
+    }
+
+    public long getMaxWaitingTime() {
+        return waitingTimes.getMax();
+    }
+
+    public long getMaxTurnaroundTime() {
+        return turnaroundTimes.getMax();
+    }
+
+    public long getMaxResponseTime() {
+        return responseTimes.getMax();
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    // Time from the first arrival to the last completion
+    public long getSpan() {
+        return completed == 0 ? 0 : endTime - firstArrival;
+    }
+
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    // Processes completed per time unit over the span
+    public double getThroughput() {
+        long span = getSpan();
+        return span == 0 ? 0 : (double) completed / span;
+    }
+
+    // Fraction of the span the CPUs spent running processes (the rest is idle or context switching)
+    public double getCpuUtilization() {
+        long span = getSpan();
+        return span == 0 ? 0 : (double) busyTime / ((double) span * cores);
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+}
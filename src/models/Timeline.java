@@ -0,0 +1,151 @@
+package models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact execution timeline: one entry per uninterrupted run of a process, stored as parallel int columns
+// (start, duration, row) where row points into the process table the scheduler ran on.
+// Memory grows with the number of context switches, not with the simulated time.
+public class Timeline {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ProcessTable table;              // Process table the rows point into
+    private final Map<Process, Integer> rowOf;     // Reverse lookup, used when a scheduler appends by Process
+    private final Process[] processes;             // Process objects behind the table rows, if built from a list
+
+    private int[] start = new int[INITIAL_CAPACITY];    // Start time of each run
+    private int[] duration = new int[INITIAL_CAPACITY]; // Length of each run
+    private int[] row = new int[INITIAL_CAPACITY];      // Index of the process in the table
+    private int size;                                   // Number of runs stored
+    private int endTime;                                // Latest end of a run (runs of several CPUs may overlap)
+
+    // Creates an empty timeline whose rows point into the given table
+    public Timeline(ProcessTable table) {
+        this.table = table;
+        this.rowOf = null;
+        this.processes = null;
+    }
+
+    // Creates an empty timeline over a table snapshot of the given processes, for schedulers that work
+    // with Process objects and append by Process
+    public Timeline(List<Process> processes) {
+        this.table = ProcessTable.fromProcesses(processes);
+        this.processes = processes.toArray(new Process[0]);
+        this.rowOf = new IdentityHashMap<>(this.processes.length);
+        for (int i = 0; i < this.processes.length; i++) {
+            rowOf.put(this.processes[i], i);
+        }
+    }
+
+    // Appends a run of the process at the given table row, merging it into the previous run
+    // when the same process simply keeps going
+    public void append(int processRow, int startTime, int runDuration) {
+        if (runDuration <= 0) {
+            return;
+        }
+        endTime = Math.max(endTime, startTime + runDuration);
+        if (size > 0) {
+            int last = size - 1;
+            if (row[last] == processRow && start[last] + duration[last] == startTime) {
+                duration[last] += runDuration;
+                return;
+            }
+        }
+        if (size == start.length) {
+            int newCapacity = size + (size >> 1);
+            start = Arrays.copyOf(start, newCapacity);
+            duration = Arrays.copyOf(duration, newCapacity);
+            row = Arrays.copyOf(row, newCapacity);
+        }
+        start[size] = startTime;
+        duration[size] = runDuration;
+        row[size] = processRow;
+        size++;
+    }
+
+    // Appends a run of the given process (the timeline must have been created from a list containing it)
+    public void append(Process process, int startTime, int runDuration) {
+        // Fast path: the process that ran last is by far the most common case
+        if (processes != null && size > 0 && processes[row[size - 1]] == process) {
+            append(row[size - 1], startTime, runDuration);
+            return;
+        }
+        Integer processRow = rowOf == null ? null : rowOf.get(process);
+        if (processRow == null) {
+            throw new IllegalArgumentException("Process " + process.getName() + " is not part of this timeline");
+        }
+        append(processRow, startTime, runDuration);
+    }
+
+    // Removes every run, keeping the arrays for reuse
+    public void clear() {
+        size = 0;
+        endTime = 0;
+    }
+
+    // Number of runs in the timeline
+    public int size() {
+        return size;
+    }
+
+    public int getStart(int index) {
+        return start[index];
+    }
+
+    public int getDuration(int index) {
+        return duration[index];
+    }
+
+    public int getRow(int index) {
+        return row[index];
+    }
+
+    // PID of the process behind a run
+    public int getPid(int index) {
+        return table.getPid(row[index]);
+    }
+
+    public ProcessTable getTable() {
+        return table;
+    }
+
+    // Time at which the last run to finish ends (0 for an empty timeline)
+    public int getEndTime() {
+        return endTime;
+    }
+
+    // Builds the ProcessExecution for one run; name and color are shared with the process table
+    public ProcessExecution getExecution(int index) {
+        int processRow = row[index];
+        return new ProcessExecution(
+                table.getName(processRow),
+                duration[index],
+                table.getColor(processRow),
+                table.getPid(processRow),
+                table.getPriority(processRow),
+                start[index]
+        );
+    }
+
+    // Read-only List view for code that works with ProcessExecution (e.g. GanttChart);
+    // elements are created on access, nothing is copied up front
+    public List<ProcessExecution> asList() {
+        return new AbstractList<ProcessExecution>() {
+            @Override
+            public ProcessExecution get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                return getExecution(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
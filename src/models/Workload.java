@@ -0,0 +1,111 @@
+package models;
+
+import java.awt.Color;
+import java.util.List;
+
+// Immutable set of processes to schedule. Holds a private process table that is never handed out or
+// scheduled itself: a run copies it into the table of its RunContext, so the same workload can be run
+// any number of times, by any scheduler, from any thread.
+public class Workload {
+    private final ProcessTable table;
+
+    private Workload(ProcessTable table) {
+        this.table = table;
+    }
+
+    // Workload with the given processes, row i being processes.get(i); a process's current quantum
+    // (getUpdatedQuantum) becomes its starting quantum
+    public static Workload of(List<Process> processes) {
+        return new Workload(ProcessTable.fromProcesses(processes));
+    }
+
+    // Workload backed by the given table, without copying it; the caller must not change the table afterwards
+    // (used by loaders that build a table only for this workload)
+    public static Workload wrap(ProcessTable table) {
+        table.resetState();
+        return new Workload(table);
+    }
+
+    // Workload with a copy of the rows of a table (its run state is ignored)
+    public static Workload copyOf(ProcessTable source) {
+        ProcessTable table = new ProcessTable(source.size());
+        table.copyFrom(source);
+        table.resetState();
+        return new Workload(table);
+    }
+
+    // Copy of this workload in which every process starts with the given quantum
+    public Workload withQuantum(int quantum) {
+        ProcessTable copy = toTable();
+        for (int row = 0; row < copy.size(); row++) {
+            copy.setQuantum(row, quantum);
+        }
+        return new Workload(copy);
+    }
+
+    // Workload with rows[from] to rows[to - 1] of this one, in that order
+    public Workload subset(int[] rows, int from, int to) {
+        ProcessTable copy = new ProcessTable(to - from);
+        for (int i = from; i < to; i++) {
+            int row = rows[i];
+            copy.set(i - from, table.hasName(row) ? table.getName(row) : null, table.getArrivalTime(row),
+                    table.getBurstTime(row), table.getPriority(row), table.getRgb(row), table.getPid(row),
+                    table.getQuantum(row));
+        }
+        return new Workload(copy);
+    }
+
+    // Number of processes
+    public int size() {
+        return table.size();
+    }
+
+    public int getPid(int row) {
+        return table.getPid(row);
+    }
+
+    public int getArrivalTime(int row) {
+        return table.getArrivalTime(row);
+    }
+
+    public int getBurstTime(int row) {
+        return table.getBurstTime(row);
+    }
+
+    public int getPriority(int row) {
+        return table.getPriority(row);
+    }
+
+    public int getQuantum(int row) {
+        return table.getQuantum(row);
+    }
+
+    public String getName(int row) {
+        return table.getName(row);
+    }
+
+    public Color getColor(int row) {
+        return table.getColor(row);
+    }
+
+    public int getRgb(int row) {
+        return table.getRgb(row);
+    }
+
+    // Whether the process has its own name rather than being named after its PID
+    public boolean hasName(int row) {
+        return table.hasName(row);
+    }
+
+    // Replaces the contents of target with this workload, ready to be scheduled
+    public void copyInto(ProcessTable target) {
+        target.copyFrom(table);
+    }
+
+    // New table holding this workload
+    public ProcessTable toTable() {
+        ProcessTable copy = new ProcessTable(table.size());
+        copy.copyFrom(table);
+        return copy;
+    }
+}
@@ -0,0 +1,258 @@
+package workloads;
+
+import models.ProcessSource;
+import models.ProcessTable;
+import models.Workload;
+
+import java.util.SplittableRandom;
+
+// Seeded generator of synthetic workloads. The same seed and settings always give the same processes,
+// whether they are materialized with generate(...) or streamed lazily with stream(...), so a run over
+// billions of processes never needs them all in memory.
+//
+// Arrivals: Poisson (exponential gaps) or bursty (bursts of a geometric number of closely spaced arrivals
+// separated by longer gaps, with the same long-run mean gap). Burst times: exponential or Pareto
+// (heavy-tailed). Priorities follow a weighted mix and FCAI quanta are uniform within a range.
+// Processes are named after their PID and get colors from the default palette.
+public class WorkloadGenerator {
+    public enum ArrivalModel { POISSON, BURSTY }
+
+    public enum BurstModel { EXPONENTIAL, PARETO }
+
+    private final long seed;
+
+    // Arrival settings
+    private ArrivalModel arrivalModel = ArrivalModel.POISSON;
+    private double meanInterArrival = 1.0; // Long-run mean time between arrivals
+    private double meanBurstSize = 10.0;   // Mean number of arrivals in a burst (bursty)
+    private double burstFactor = 10.0;     // How much closer arrivals are inside a burst (bursty)
+
+    // Burst time settings
+    private BurstModel burstModel = BurstModel.EXPONENTIAL;
+    private double meanBurst = 10.0;       // Mean burst time (exponential)
+    private double paretoShape = 1.5;      // Tail index (Pareto), smaller = heavier tail
+    private double paretoMinimum = 1.0;    // Smallest burst time (Pareto)
+    private int maxBurst = 1_000_000;      // Upper limit on any burst time
+
+    // Priority and quantum settings
+    private double[] priorityShares = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1}; // Cumulative after priorityMix(...)
+    private int minQuantum = 2;
+    private int maxQuantum = 8;
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+        priorityMix(priorityShares);
+    }
+
+    // Poisson arrivals with the given mean time between arrivals
+    public WorkloadGenerator poissonArrivals(double meanGap) {
+        requirePositive(meanGap, "mean time between arrivals");
+        this.arrivalModel = ArrivalModel.POISSON;
+        this.meanInterArrival = meanGap;
+        return this;
+    }
+
+    // Bursty arrivals: bursts of meanSize arrivals on average, burstFactor times closer together than the
+    // long-run mean gap, with longer gaps in between
+    public WorkloadGenerator burstyArrivals(double meanGap, double meanSize, double factor) {
+        requirePositive(meanGap, "mean time between arrivals");
+        if (meanSize < 1 || factor < 1) {
+            throw new IllegalArgumentException("Burst size and burst factor must be at least 1");
+        }
+        this.arrivalModel = ArrivalModel.BURSTY;
+        this.meanInterArrival = meanGap;
+        this.meanBurstSize = meanSize;
+        this.burstFactor = factor;
+        return this;
+    }
+
+    // Exponentially distributed burst times with the given mean (at least 1)
+    public WorkloadGenerator exponentialBursts(double mean) {
+        requirePositive(mean, "mean burst time");
+        this.burstModel = BurstModel.EXPONENTIAL;
+        this.meanBurst = mean;
+        return this;
+    }
+
+    // Pareto distributed burst times: minimum / U^(1/shape), capped at max
+    public WorkloadGenerator paretoBursts(double shape, double minimum, int max) {
+        requirePositive(shape, "Pareto shape");
+        requirePositive(minimum, "Pareto minimum");
+        if (max < minimum) {
+            throw new IllegalArgumentException("Maximum burst time is below the minimum");
+        }
+        this.burstModel = BurstModel.PARETO;
+        this.paretoShape = shape;
+        this.paretoMinimum = minimum;
+        this.maxBurst = max;
+        return this;
+    }
+
+    // Relative share of each priority: weights[i] for priority i
+    public WorkloadGenerator priorityMix(double... weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Priority weights must not be negative");
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one priority needs a positive weight");
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        this.priorityShares = cumulative;
+        return this;
+    }
+
+    // FCAI quanta drawn uniformly from [min, max]
+    public WorkloadGenerator quantumRange(int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid quantum range [" + min + ", " + max + "]");
+        }
+        this.minQuantum = min;
+        this.maxQuantum = max;
+        return this;
+    }
+
+    // Lazy source of count processes; each call starts again from the seed. Later changes to the
+    // settings do not affect sources already created.
+    public ProcessSource stream(long count) {
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Process count must be between 0 and " + Integer.MAX_VALUE);
+        }
+        return new Stream(this, count);
+    }
+
+    // The first count processes of stream(count), in memory
+    public Workload generate(int count) {
+        ProcessTable table = new ProcessTable(count);
+        ProcessSource source = stream(count);
+        while (source.next(table, table.size())) {
+            // Every call adds a row
+        }
+        return Workload.wrap(table);
+    }
+
+    private static void requirePositive(double value, String name) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException("The " + name + " must be positive");
+        }
+    }
+
+    // One pass over the generated processes, with its own copy of the settings and random state
+    private static class Stream implements ProcessSource {
+        private final SplittableRandom random;
+        private final long count;
+        private final ArrivalModel arrivalModel;
+        private final double meanInterArrival;
+        private final double meanBurstSize;
+        private final double burstFactor;
+        private final BurstModel burstModel;
+        private final double meanBurst;
+        private final double paretoShape;
+        private final double paretoMinimum;
+        private final int maxBurst;
+        private final double[] priorityShares;
+        private final int minQuantum;
+        private final int maxQuantum;
+
+        private long produced;
+        private double clock;       // Arrival clock, truncated to whole time units
+        private long leftInBurst;   // Arrivals still to come in the current burst (bursty)
+
+        Stream(WorkloadGenerator settings, long count) {
+            this.random = new SplittableRandom(settings.seed);
+            this.count = count;
+            this.arrivalModel = settings.arrivalModel;
+            this.meanInterArrival = settings.meanInterArrival;
+            this.meanBurstSize = settings.meanBurstSize;
+            this.burstFactor = settings.burstFactor;
+            this.burstModel = settings.burstModel;
+            this.meanBurst = settings.meanBurst;
+            this.paretoShape = settings.paretoShape;
+            this.paretoMinimum = settings.paretoMinimum;
+            this.maxBurst = settings.maxBurst;
+            this.priorityShares = settings.priorityShares.clone();
+            this.minQuantum = settings.minQuantum;
+            this.maxQuantum = settings.maxQuantum;
+        }
+
+        @Override
+        public boolean next(ProcessTable table, int row) {
+            if (produced == count) {
+                return false;
+            }
+            int pid = (int) ++produced;
+            int arrival = nextArrival();
+            int burst = nextBurst();
+            int priority = nextPriority();
+            int quantum = minQuantum + random.nextInt(maxQuantum - minQuantum + 1);
+            table.set(row, null, arrival, burst, priority, ProcessTable.defaultRgb(pid), pid, quantum);
+            return true;
+        }
+
+        private int nextArrival() {
+            if (produced > 1) {
+                if (arrivalModel == ArrivalModel.POISSON) {
+                    clock += exponential(meanInterArrival);
+                } else if (leftInBurst > 0) {
+                    clock += exponential(meanInterArrival / burstFactor);
+                } else {
+                    // Gap between bursts, chosen so a whole burst cycle averages meanInterArrival per arrival
+                    double gap = meanInterArrival * (meanBurstSize - (meanBurstSize - 1) / burstFactor);
+                    clock += exponential(gap);
+                }
+            }
+            if (arrivalModel == ArrivalModel.BURSTY) {
+                if (leftInBurst == 0) {
+                    leftInBurst = geometric(meanBurstSize);
+                }
+                leftInBurst--;
+            }
+            if (clock > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Arrival times passed " + Integer.MAX_VALUE
+                        + "; use a smaller mean time between arrivals or fewer processes");
+            }
+            return (int) clock;
+        }
+
+        private int nextBurst() {
+            double burst;
+            if (burstModel == BurstModel.EXPONENTIAL) {
+                burst = Math.rint(exponential(meanBurst));
+            } else {
+                burst = Math.ceil(paretoMinimum / Math.pow(1.0 - random.nextDouble(), 1.0 / paretoShape));
+            }
+            return (int) Math.max(1, Math.min(maxBurst, burst));
+        }
+
+        private int nextPriority() {
+            double u = random.nextDouble();
+            int last = priorityShares.length - 1;
+            for (int i = 0; i < last; i++) {
+                if (u < priorityShares[i]) {
+                    return i;
+                }
+            }
+            return last;
+        }
+
+        private double exponential(double mean) {
+            return -mean * Math.log(1.0 - random.nextDouble());
+        }
+
+        // Number of trials up to the first success, with the given mean (at least 1)
+        private long geometric(double mean) {
+            if (mean <= 1) {
+                return 1;
+            }
+            double p = 1.0 / mean;
+            return 1 + (long) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package workloads;
+
+import models.ProcessTable;
+import models.Workload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Loads workloads from files without any prompts. Files are read through memory-mapped chunks of a
+// FileChannel and parsed byte by byte straight into a ProcessTable, so no String is created per field
+// and files far larger than the heap-friendly size of a single buffer can be loaded.
+//
+// CSV format, one process per line (PIDs are assigned in file order, starting at 1):
+//     name,arrival,burst,priority[,quantum[,color]]
+// An empty name or a name of the form P<pid> means the process is named after its PID, a missing
+// quantum is 0 and a missing color (#rrggbb or 0xrrggbb) is picked from the default palette.
+// Blank lines and lines starting with '#' are skipped, and so is a header line.
+//
+// Binary format (little-endian): a 16-byte header (magic "CPUS", version, record count as a long)
+// followed by one 24-byte record per process: pid, arrival, burst, priority, quantum, rgb.
+// Binary workloads carry no names; every process is named after its PID.
+public class WorkloadLoader {
+    static final int MAGIC = 0x53555043;   // "CPUS" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+    static final int DEFAULT_CHUNK_SIZE = 64 << 20; // Bytes mapped at a time
+
+    // Loads a binary workload if the file starts with the binary header, a CSV workload otherwise
+    public static Workload load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() >= HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(header, 0);
+                if (header.getInt(0) == MAGIC) {
+                    return loadBinary(path);
+                }
+            }
+        }
+        return loadCsv(path);
+    }
+
+    public static Workload loadCsv(Path path) throws IOException {
+        return loadCsv(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    // Reads the file chunk by chunk; a line cut by the end of a chunk is parsed again from the next chunk
+    static Workload loadCsv(Path path, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            // Rough guess of the row count (a typical line is about 24 bytes), so the table rarely has to grow
+            ProcessTable table = new ProcessTable((int) Math.min(fileSize / 24 + 16, Integer.MAX_VALUE - 8));
+            CsvParser parser = new CsvParser(table);
+            long position = 0;
+            int size = chunkSize;
+            while (position < fileSize) {
+                long length = Math.min(size, fileSize - position);
+                boolean last = position + length == fileSize;
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = parser.parse(chunk, (int) length, last);
+                if (consumed == 0 && !last) {
+                    size = Math.multiplyExact(size, 2); // A single line longer than the chunk
+                    continue;
+                }
+                position += consumed;
+            }
+            return Workload.wrap(table);
+        }
+    }
+
+    public static Workload loadBinary(Path path) throws IOException {
+        return loadBinary(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    static Workload loadBinary(Path path, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException(path + " is too short to be a binary workload");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a binary workload");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported version " + header.getInt(4));
+            }
+            long count = header.getLong(8);
+            if (count < 0 || count > Integer.MAX_VALUE || fileSize != HEADER_SIZE + count * RECORD_SIZE) {
+                throw new IOException(path + " is truncated or has a wrong record count (" + count + ")");
+            }
+
+            ProcessTable table = new ProcessTable((int) count);
+            int recordsPerChunk = Math.max(1, chunkSize / RECORD_SIZE);
+            long position = HEADER_SIZE;
+            long remaining = count;
+            while (remaining > 0) {
+                int records = (int) Math.min(recordsPerChunk, remaining);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) records * RECORD_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0, offset = 0; i < records; i++, offset += RECORD_SIZE) {
+                    int arrival = chunk.getInt(offset + 4);
+                    int burst = chunk.getInt(offset + 8);
+                    if (arrival < 0 || burst < 1) {
+                        throw new IOException(path + ": record " + (count - remaining + i)
+                                + " has arrival time " + arrival + " and burst time " + burst
+                                + " (need arrival >= 0, burst >= 1)");
+                    }
+                    int row = table.add(null, arrival, burst,
+                            chunk.getInt(offset + 12), chunk.getInt(offset + 20), chunk.getInt(offset));
+                    table.setQuantum(row, chunk.getInt(offset + 16));
+                }
+                position += (long) records * RECORD_SIZE;
+                remaining -= records;
+            }
+            return Workload.wrap(table);
+        }
+    }
+
+    // Writes a workload in the binary format (names are not stored)
+    public static void writeBinary(Workload workload, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 8192).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(workload.size());
+            for (int row = 0; row < workload.size(); row++) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(workload.getPid(row))
+                        .putInt(workload.getArrivalTime(row))
+                        .putInt(workload.getBurstTime(row))
+                        .putInt(workload.getPriority(row))
+                        .putInt(workload.getQuantum(row))
+                        .putInt(workload.getRgb(row));
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Parses CSV lines from byte buffers into a table, keeping the line count across chunks
+    private static class CsvParser {
+        private final ProcessTable table;
+        private final int[] fields = new int[12]; // Start and end of each field of the current line
+        private long lineNumber;        // Lines seen so far
+        private boolean seenData;       // A data line (or the header) has been read
+
+        CsvParser(ProcessTable table) {
+            this.table = table;
+        }
+
+        // Parses every complete line in buffer[0, length) and returns the number of bytes used; at the end
+        // of the file (last) the final line does not need a line break
+        int parse(ByteBuffer buffer, int length, boolean last) throws IOException {
+            int lineStart = 0;
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (lineEnd == length && !last) {
+                    break; // Incomplete line, it starts the next chunk
+                }
+                lineNumber++;
+                int end = lineEnd;
+                if (end > lineStart && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+                parseLine(buffer, lineStart, end);
+                lineStart = lineEnd + 1;
+            }
+            return Math.min(lineStart, length);
+        }
+
+        private void parseLine(ByteBuffer buffer, int start, int end) throws IOException {
+            start = skipSpaces(buffer, start, end);
+            if (start == end || buffer.get(start) == '#') {
+                return; // Blank line or comment
+            }
+
+            // Field boundaries: name, arrival, burst, priority, then the optional quantum and color
+            int count = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buffer.get(i) == ',') {
+                    if (count == 6) {
+                        throw error("too many fields");
+                    }
+                    fields[2 * count] = fieldStart;
+                    fields[2 * count + 1] = i;
+                    count++;
+                    fieldStart = i + 1;
+                }
+            }
+
+            // The first line may be a header: its arrival field is not a number
+            if (!seenData) {
+                seenData = true;
+                if (count >= 2 && !looksNumeric(buffer, fields[2], fields[3])) {
+                    return;
+                }
+            }
+            if (count < 4) {
+                throw error("expected name,arrival,burst,priority[,quantum[,color]]");
+            }
+
+            int pid = table.size() + 1;
+            int arrival = parseInt(buffer, fields[2], fields[3], "arrival time");
+            int burst = parseInt(buffer, fields[4], fields[5], "burst time");
+            if (arrival < 0) {
+                throw error("arrival time must not be negative");
+            }
+            if (burst < 1) {
+                throw error("burst time must be at least 1");
+            }
+            int priority = parseInt(buffer, fields[6], fields[7], "priority");
+            int quantum = count > 4 ? parseInt(buffer, fields[8], fields[9], "quantum") : 0;
+            int rgb = count > 5 ? parseColor(buffer, fields[10], fields[11]) : ProcessTable.defaultRgb(pid);
+            String name = parseName(buffer, fields[0], fields[1], pid);
+
+            int row = table.add(name, arrival, burst, priority, rgb, pid);
+            table.setQuantum(row, quantum);
+        }
+
+        // Name of the process, or null when it is empty or just "P" + pid
+        private String parseName(ByteBuffer buffer, int start, int end, int pid) {
+            start = skipSpaces(buffer, start, end);
+            end = trimSpaces(buffer, start, end);
+            if (start == end) {
+                return null;
+            }
+            if (buffer.get(start) == 'P' && end - start > 1) {
+                long value = 0;
+                int i = start + 1;
+                while (i < end && isDigit(buffer.get(i)) && value <= Integer.MAX_VALUE) {
+                    value = value * 10 + (buffer.get(i) - '0');
+                    i++;
+                }
+                if (i == end && value == pid && buffer.get(start + 1) != '0') {
+                    return null;
+                }
+            }
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int parseInt(ByteBuffer buffer, int start, int end, String field) throws IOException {
+            start = skipSpaces(buffer, start, end);
+            end = trimSpaces(buffer, start, end);
+            boolean negative = start < end && buffer.get(start) == '-';
+            int i = negative ? start + 1 : start;
+            if (i == end) {
+                throw error("missing " + field);
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (!isDigit(b)) {
+                    throw error("invalid " + field);
+                }
+                value = value * 10 + (b - '0');
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw error(field + " out of range");
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw error(field + " out of range");
+            }
+            return (int) value;
+        }
+
+        private int parseColor(ByteBuffer buffer, int start, int end) throws IOException {
+            start = skipSpaces(buffer, start, end);
+            end = trimSpaces(buffer, start, end);
+            if (start < end && buffer.get(start) == '#') {
+                start++;
+            } else if (end - start > 2 && buffer.get(start) == '0'
+                    && (buffer.get(start + 1) == 'x' || buffer.get(start + 1) == 'X')) {
+                start += 2;
+            }
+            if (start == end || end - start > 6) {
+                throw error("invalid color");
+            }
+            int rgb = 0;
+            for (int i = start; i < end; i++) {
+                int digit = Character.digit(buffer.get(i), 16);
+                if (digit < 0) {
+                    throw error("invalid color");
+                }
+                rgb = (rgb << 4) | digit;
+            }
+            return rgb;
+        }
+
+        private boolean looksNumeric(ByteBuffer buffer, int start, int end) {
+            start = skipSpaces(buffer, start, end);
+            if (start < end && buffer.get(start) == '-') {
+                start++;
+            }
+            return start < end && isDigit(buffer.get(start));
+        }
+
+        private IOException error(String message) {
+            return new IOException("Line " + lineNumber + ": " + message);
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int skipSpaces(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '\t')) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimSpaces(ByteBuffer buffer, int start, int end) {
+        while (end > start && (buffer.get(end - 1) == ' ' || buffer.get(end - 1) == '\t')) {
+            end--;
+        }
+        return end;
+    }
+}